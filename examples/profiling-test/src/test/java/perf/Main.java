@@ -2,6 +2,7 @@ package perf;
 
 import com.intuit.karate.PerfHook;
 import com.intuit.karate.Runner;
+import com.intuit.karate.Suite;
 import com.intuit.karate.core.FeatureResult;
 import com.intuit.karate.core.PerfEvent;
 import com.intuit.karate.core.ScenarioRuntime;
@@ -43,9 +44,9 @@ public class Main {
             }
 
         };
-        Runner.Builder builder = Runner.builder();
+        Suite suite = Runner.suiteForAsync(Runner.builder());
         while (true) {            
-            Runner.callAsync(builder, "classpath:perf/test.feature", null, hook);
+            Runner.callAsync(suite, "classpath:perf/test.feature", null, hook);
             count++;
             System.out.print(count + " ");
             if (count % 100 == 0) {
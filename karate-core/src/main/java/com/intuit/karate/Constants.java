@@ -38,8 +38,10 @@ public class Constants {
     public static final String KARATE_CONFIG_INCL_RESULT_METHOD = "karate.config.result.result-method.include";
     public static final String KARATE_OUTPUT_DIR = "karate.output.dir";
     public static final String KARATE_OPTIONS = "karate.options";
+    public static final String KARATE_NETTY_THREADS = "karate.netty.threads";
     public static final String KARATE_REPORTS = "karate-reports";
     public static final String KARATE_JSON_SUFFIX = ".karate-json.txt";
+    public static final String KARATE_SUMMARY_JSON = "karate-summary-json.txt";
     
     public static final byte[] ZERO_BYTES = new byte[0];
 
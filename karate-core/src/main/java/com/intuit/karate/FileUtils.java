@@ -24,6 +24,8 @@
 package com.intuit.karate;
 
 import com.intuit.karate.core.Feature;
+import com.intuit.karate.core.FeatureCache;
+import com.intuit.karate.resource.ResourceUtils;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
@@ -88,6 +90,12 @@ public class FileUtils {
         return feature;
     }
 
+    // the returned feature is shared, and should not be modified
+    public static Feature parseFeatureAndCallTag(String path, FeatureCache cache) {
+        StringUtils.Pair pair = parsePathAndTags(path);
+        return cache.read(ResourceUtils.getResource(WORKING_DIR, pair.left), pair.right);
+    }
+
     public static String toString(File file) {
         try {
             return toString(new FileInputStream(file));
@@ -82,7 +82,7 @@ public class Json {
     }
 
     public <T> T get(String path) {
-        return (T) doc.read(prefix(path));
+        return JsonPathCache.read(doc, prefix(path));
     }
 
     public <T> T getOrNull(String path) {
@@ -110,7 +110,9 @@ public class Json {
     }
 
     public <T> T get(String path, Class<T> clazz) {
-        return doc.read(prefix(path), clazz);
+        Object value = JsonPathCache.read(doc, prefix(path));
+        // same conversion as DocumentContext.read(path, clazz)
+        return doc.configuration().mappingProvider().map(value, clazz, doc.configuration());
     }
 
     @Override
@@ -127,7 +129,7 @@ public class Json {
     }
 
     public <T> T value() {
-        return doc.read("$");
+        return JsonPathCache.read(doc, "$");
     }
 
     public List asList() {
@@ -151,7 +153,7 @@ public class Json {
     }
 
     public Json remove(String path) {
-        doc.delete(prefix(path));
+        doc.delete(JsonPathCache.compile(prefix(path)));
         return this;
     }
 
@@ -202,12 +204,12 @@ public class Json {
         if (forArray) {
             int index = arrayIndex(pair.right);
             if (index == -1) {
-                doc.add(arrayKey(path), o);
+                doc.add(JsonPathCache.compile(arrayKey(path)), o);
             } else {
-                doc.set(path, o);
+                doc.set(JsonPathCache.compile(path), o);
             }
         } else {
-            doc.put(pair.left, pair.right, o);
+            doc.put(JsonPathCache.compile(pair.left), pair.right, o);
         }
     }
 
@@ -216,7 +218,7 @@ public class Json {
             path = path.substring(0, path.length() - 2);
         }
         try {
-            Object temp = doc.read(path);
+            Object temp = JsonPathCache.read(doc, path);
             return temp != null;
         } catch (PathNotFoundException pnfe) {
             return false;
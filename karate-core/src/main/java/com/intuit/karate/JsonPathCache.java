@@ -0,0 +1,188 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2021 Intuit Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.intuit.karate;
+
+import com.jayway.jsonpath.DocumentContext;
+import com.jayway.jsonpath.JsonPath;
+import com.jayway.jsonpath.PathNotFoundException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * jvm-wide cache of parsed json-paths, shared across threads, simple paths
+ * made of only properties and (non-negative) array indexes such as
+ * $.a.b[0]['c'] are walked directly over the maps and lists, and everything
+ * else is compiled once by jayway, the results (and the PathNotFoundException
+ * when a path does not resolve) are the same as what jayway would return for
+ * a definite path with the default options
+ *
+ * @author pthomas3
+ */
+public class JsonPathCache {
+
+    private static final int MAX_SIZE = 1024;
+
+    private static final Map<String, Entry> CACHE = new ConcurrentHashMap();
+
+    private JsonPathCache() {
+        // only static methods
+    }
+
+    static class Entry {
+
+        final String path;
+        final Object[] segments; // string for property, integer for index, null if not simple
+        private volatile JsonPath compiled;
+
+        Entry(String path) {
+            this.path = path;
+            segments = parse(path);
+        }
+
+        JsonPath compiled() {
+            if (compiled == null) { // a race here just means compiling twice
+                compiled = JsonPath.compile(path);
+            }
+            return compiled;
+        }
+
+    }
+
+    static Entry get(String path) {
+        Entry entry = CACHE.get(path);
+        if (entry == null) {
+            if (CACHE.size() >= MAX_SIZE) { // crude, but we only expect a few hundred distinct paths
+                CACHE.clear();
+            }
+            entry = new Entry(path);
+            CACHE.put(path, entry);
+        }
+        return entry;
+    }
+
+    public static JsonPath compile(String path) {
+        return get(path).compiled();
+    }
+
+    public static <T> T read(DocumentContext doc, String path) {
+        Entry entry = get(path);
+        if (entry.segments == null) {
+            return doc.read(entry.compiled());
+        }
+        return (T) walk(doc.json(), entry.segments, path);
+    }
+
+    public static int size() {
+        return CACHE.size();
+    }
+
+    public static void clear() {
+        CACHE.clear();
+    }
+
+    static Object walk(Object o, Object[] segments, String path) {
+        for (Object segment : segments) {
+            if (segment instanceof String) {
+                if (!(o instanceof Map)) {
+                    throw new PathNotFoundException("expected an object with property ['" + segment + "'] in path " + path + " but found: " + o);
+                }
+                Map map = (Map) o;
+                if (!map.containsKey(segment)) {
+                    throw new PathNotFoundException("no results for path: " + path);
+                }
+                o = map.get(segment);
+            } else {
+                int index = (Integer) segment;
+                if (!(o instanceof List)) {
+                    throw new PathNotFoundException("expected an array for index [" + index + "] in path " + path + " but found: " + o);
+                }
+                List list = (List) o;
+                if (index >= list.size()) {
+                    throw new PathNotFoundException("no results for path: " + path);
+                }
+                o = list.get(index);
+            }
+        }
+        return o;
+    }
+
+    private static boolean isNameChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_' || c == '-';
+    }
+
+    // returns null if the path needs jayway (wildcards, deep-scan, filters, functions etc.)
+    static Object[] parse(String path) {
+        int length = path.length();
+        if (length == 0 || path.charAt(0) != '$') {
+            return null;
+        }
+        List<Object> list = new ArrayList();
+        int pos = 1;
+        while (pos < length) {
+            char c = path.charAt(pos);
+            if (c == '.') {
+                int start = ++pos;
+                while (pos < length && isNameChar(path.charAt(pos))) {
+                    pos++;
+                }
+                if (pos == start) {
+                    return null;
+                }
+                list.add(path.substring(start, pos));
+            } else if (c == '[') {
+                int end = path.indexOf(']', pos);
+                if (end == -1) {
+                    return null;
+                }
+                String inner = path.substring(pos + 1, end);
+                int innerLength = inner.length();
+                if (innerLength > 2 && inner.charAt(0) == '\'' && inner.charAt(innerLength - 1) == '\'') {
+                    String name = inner.substring(1, innerLength - 1);
+                    if (name.indexOf('\'') != -1 || name.indexOf('\\') != -1 || name.indexOf(',') != -1) {
+                        return null;
+                    }
+                    list.add(name);
+                } else {
+                    if (innerLength == 0 || innerLength > 9) {
+                        return null;
+                    }
+                    for (int i = 0; i < innerLength; i++) {
+                        char d = inner.charAt(i);
+                        if (d < '0' || d > '9') {
+                            return null;
+                        }
+                    }
+                    list.add(Integer.valueOf(inner));
+                }
+                pos = end + 1;
+            } else {
+                return null;
+            }
+        }
+        return list.toArray();
+    }
+
+}
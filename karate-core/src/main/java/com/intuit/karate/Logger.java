@@ -60,6 +60,10 @@ public class Logger {
         return LOGGER.isTraceEnabled();
     }
 
+    public boolean isDebugEnabled() {
+        return LOGGER.isDebugEnabled();
+    }
+
     public void setAppendOnly(boolean appendOnly) {
         this.appendOnly = appendOnly;
     }
@@ -133,7 +137,7 @@ public class Logger {
     }
 
     private void formatAndAppend(String format, Object... arguments) {
-        if (appender == null) {
+        if (appender == null || appender == LogAppender.NO_OP) {
             return;
         }
         FormattingTuple tp = MessageFormatter.arrayFormat(format, arguments);
@@ -151,9 +151,11 @@ public class Match {
         final MatchOperation root;
         final int depth;
         final boolean xml;
-        final String path;
         final String name;
         final int index;
+        final Context parent;
+        
+        private String path; // built only when needed, which is when reporting a failure
         
         Context(JsEngine js, MatchOperation root, boolean xml, int depth, String path, String name, int index) {
             this.JS = js;
@@ -163,25 +165,40 @@ public class Match {
             this.path = path;
             this.name = name;
             this.index = index;
+            parent = null;
         }
         
-        Context descend(String name) {
-            if (xml) {
-                String childPath = path.endsWith("/@") ? path + name : (depth == 0 ? "" : path) + "/" + name;
-                return new Context(JS, root, xml, depth + 1, childPath, name, -1);
-            } else {
-                boolean needsQuotes = name.indexOf('-') != -1 || name.indexOf(' ') != -1 || name.indexOf('.') != -1;
-                String childPath = needsQuotes ? path + "['" + name + "']" : path + '.' + name;
-                return new Context(JS, root, xml, depth + 1, childPath, name, -1);
+        private Context(Context parent, String name, int index) {
+            JS = parent.JS;
+            root = parent.root;
+            xml = parent.xml;
+            depth = parent.depth + 1;
+            this.parent = parent;
+            this.name = name;
+            this.index = index;
+        }
+        
+        String getPath() {
+            if (path == null) {
+                String parentPath = parent.getPath();
+                if (index != -1) {
+                    path = parentPath + "[" + (xml ? index + 1 : index) + "]";
+                } else if (xml) {
+                    path = parentPath.endsWith("/@") ? parentPath + name : (parent.depth == 0 ? "" : parentPath) + "/" + name;
+                } else {
+                    boolean needsQuotes = name.indexOf('-') != -1 || name.indexOf(' ') != -1 || name.indexOf('.') != -1;
+                    path = needsQuotes ? parentPath + "['" + name + "']" : parentPath + '.' + name;
+                }
             }
+            return path;
+        }
+        
+        Context descend(String name) {
+            return new Context(this, name, -1);
         }
         
         Context descend(int index) {
-            if (xml) {
-                return new Context(JS, root, xml, depth + 1, path + "[" + (index + 1) + "]", name, index);
-            } else {
-                return new Context(JS, root, xml, depth + 1, path + "[" + index + "]", name, index);
-            }
+            return new Context(this, name, index);
         }
         
     }
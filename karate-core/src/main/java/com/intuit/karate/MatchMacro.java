@@ -0,0 +1,164 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2021 Intuit Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.intuit.karate;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * a fuzzy-match macro such as '#string', '##number? _ > 0', '#regex .+',
+ * '#[_ > 0] #string' or '#(^schema)' parsed once and cached jvm-wide, js
+ * expressions are kept as the source of a function that takes _ and $ as
+ * arguments so that a js engine needs to compile it only once
+ *
+ * @author pthomas3
+ */
+class MatchMacro {
+
+    private static final int MAX_SIZE = 1024;
+
+    private static final Map<String, MatchMacro> CACHE = new ConcurrentHashMap();
+
+    static enum Kind {
+        NONE, // nothing to validate
+        EXPRESSION, // #(expression)
+        ARRAY, // #[size] followed by an optional macro or schema reference
+        VALIDATOR // #string, #regex, #? expression etc.
+    }
+
+    final Kind kind;
+    final boolean optional;
+    final Match.Type nestedType;
+    final String function; // for #(..), the #[] schema reference and the expression after the '?'
+    final String sizeFunction; // null if no size check within the square brackets
+    final String eachMacro; // e.g. #[] #string, null if not present
+    final String validatorName;
+    final Match.Validator validator;
+
+    static MatchMacro get(String expStr) {
+        MatchMacro macro = CACHE.get(expStr);
+        if (macro == null) {
+            if (CACHE.size() >= MAX_SIZE) { // crude, we only expect a few hundred distinct macros
+                CACHE.clear();
+            }
+            macro = new MatchMacro(expStr);
+            CACHE.put(expStr, macro);
+        }
+        return macro;
+    }
+
+    static int size() {
+        return CACHE.size();
+    }
+
+    static void clear() {
+        CACHE.clear();
+    }
+
+    private static String toFunction(String expression) {
+        return "function(_, $){ return (" + expression + "\n) }";
+    }
+
+    private MatchMacro(String expStr) {
+        optional = expStr.startsWith("##");
+        Kind kind = Kind.NONE;
+        Match.Type nestedType = null;
+        String function = null;
+        String sizeFunction = null;
+        String eachMacro = null;
+        String validatorName = null;
+        Match.Validator validator = null;
+        int minLength = optional ? 3 : 2;
+        if (expStr.length() > minLength) {
+            String macro = expStr.substring(minLength - 1);
+            if (macro.startsWith("(") && macro.endsWith(")")) {
+                kind = Kind.EXPRESSION;
+                macro = macro.substring(1, macro.length() - 1);
+                nestedType = MatchOperation.macroToMatchType(false, macro);
+                function = toFunction(macro.substring(MatchOperation.matchTypeToStartPos(nestedType)));
+            } else if (macro.startsWith("[")) {
+                int closeBracketPos = macro.indexOf(']');
+                if (closeBracketPos != -1) { // array, match each
+                    kind = Kind.ARRAY;
+                    if (closeBracketPos > 1) {
+                        String bracketContents = macro.substring(1, closeBracketPos);
+                        if (bracketContents.indexOf('_') != -1) { // #[_ < 5]
+                            sizeFunction = toFunction(bracketContents);
+                        } else { // #[5] | #[$.foo]
+                            sizeFunction = toFunction(bracketContents + " == _");
+                        }
+                    }
+                    if (macro.length() > closeBracketPos + 1) {
+                        macro = StringUtils.trimToNull(macro.substring(closeBracketPos + 1));
+                        if (macro != null) {
+                            if (macro.startsWith("(") && macro.endsWith(")")) {
+                                macro = macro.substring(1, macro.length() - 1); // strip parens
+                            }
+                            if (macro.startsWith("?")) { // #[]? _.length == 3
+                                macro = "#" + macro;
+                            }
+                            if (macro.startsWith("#")) {
+                                eachMacro = macro;
+                            } else { // schema reference
+                                nestedType = MatchOperation.macroToMatchType(true, macro); // match each
+                                function = toFunction(macro.substring(MatchOperation.matchTypeToStartPos(nestedType)));
+                            }
+                        }
+                    }
+                }
+            } else { // '#? _ != 0' | '#string' | '#number? _ > 0'
+                kind = Kind.VALIDATOR;
+                int questionPos = macro.indexOf('?');
+                // in case of regex we don't want to remove the '?'
+                if (questionPos != -1 && !macro.startsWith(MatchOperation.REGEX)) {
+                    validatorName = macro.substring(0, questionPos);
+                    if (macro.length() > questionPos + 1) {
+                        macro = StringUtils.trimToNull(macro.substring(questionPos + 1));
+                        if (macro != null) {
+                            function = toFunction(macro);
+                        }
+                    }
+                } else {
+                    validatorName = macro;
+                }
+                validatorName = StringUtils.trimToNull(validatorName);
+                if (validatorName != null) {
+                    if (validatorName.startsWith(MatchOperation.REGEX)) {
+                        validator = new Match.RegexValidator(validatorName.substring(5).trim());
+                    } else {
+                        validator = Match.VALIDATORS.get(validatorName);
+                    }
+                }
+            }
+        }
+        this.kind = kind;
+        this.nestedType = nestedType;
+        this.function = function;
+        this.sizeFunction = sizeFunction;
+        this.eachMacro = eachMacro;
+        this.validatorName = validatorName;
+        this.validator = validator;
+    }
+
+}
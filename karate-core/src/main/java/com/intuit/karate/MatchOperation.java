@@ -28,7 +28,9 @@ import com.intuit.karate.graal.JsValue;
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
@@ -36,6 +38,7 @@ import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import org.graalvm.polyglot.Value;
 
 /**
  *
@@ -107,7 +110,7 @@ public class MatchOperation {
         }
     }
 
-    private static Match.Type macroToMatchType(boolean each, String macro) {
+    static Match.Type macroToMatchType(boolean each, String macro) {
         if (macro.startsWith("^^")) {
             return each ? Match.Type.EACH_CONTAINS_ONLY : Match.Type.CONTAINS_ONLY;
         } else if (macro.startsWith("^+")) {
@@ -125,7 +128,7 @@ public class MatchOperation {
         }
     }
 
-    private static int matchTypeToStartPos(Match.Type mt) {
+    static int matchTypeToStartPos(Match.Type mt) {
         switch (mt) {
             case CONTAINS_ONLY:
             case EACH_CONTAINS_ONLY:
@@ -245,19 +248,19 @@ public class MatchOperation {
         }
     }
 
+    private JsValue evalMacroFunction(String function, Object value) {
+        Value fun = context.JS.attachSource(function);
+        return new JsValue(JsEngine.execute(fun, value, context.root.actual.getValue()));
+    }
+
     private boolean macroEqualsExpected(String expStr) {
-        boolean optional = expStr.startsWith("##");
-        if (optional && actual.isNull()) { // exit early
+        MatchMacro macro = MatchMacro.get(expStr);
+        if (macro.optional && actual.isNull()) { // exit early
             return true;
         }
-        int minLength = optional ? 3 : 2;
-        if (expStr.length() > minLength) {
-            String macro = expStr.substring(minLength - 1);
-            if (macro.startsWith("(") && macro.endsWith(")")) {
-                macro = macro.substring(1, macro.length() - 1);
-                Match.Type nestedType = macroToMatchType(false, macro);
-                int startPos = matchTypeToStartPos(nestedType);
-                macro = macro.substring(startPos);
+        switch (macro.kind) {
+            case EXPRESSION: {
+                Match.Type nestedType = macro.nestedType;
                 if (actual.isList()) { // special case, look for partial maps within list
                     if (nestedType == Match.Type.CONTAINS) {
                         nestedType = Match.Type.CONTAINS_DEEP;
@@ -265,101 +268,49 @@ public class MatchOperation {
                         nestedType = Match.Type.CONTAINS_ANY_DEEP;
                     }
                 }
-                context.JS.put("$", context.root.actual.getValue());
-                context.JS.put("_", actual.getValue());
-                JsValue jv = context.JS.eval(macro);
-                context.JS.bindings.removeMember("$");
-                context.JS.bindings.removeMember("_");
+                JsValue jv = evalMacroFunction(macro.function, actual.getValue());
                 MatchOperation mo = new MatchOperation(context, nestedType, actual, new Match.Value(jv.getValue()));
                 return mo.execute();
-            } else if (macro.startsWith("[")) {
-                int closeBracketPos = macro.indexOf(']');
-                if (closeBracketPos != -1) { // array, match each
-                    if (!actual.isList()) {
-                        return fail("actual is not an array");
-                    }
-                    if (closeBracketPos > 1) {
-                        String bracketContents = macro.substring(1, closeBracketPos);
-                        List listAct = actual.getValue();
-                        int listSize = listAct.size();
-                        context.JS.put("$", context.root.actual.getValue());
-                        context.JS.put("_", listSize);
-                        String sizeExpr;
-                        if (bracketContents.indexOf('_') != -1) { // #[_ < 5] 
-                            sizeExpr = bracketContents;
-                        } else { // #[5] | #[$.foo] 
-                            sizeExpr = bracketContents + " == _";
-                        }
-                        JsValue jv = context.JS.eval(sizeExpr);
-                        context.JS.bindings.removeMember("$");
-                        context.JS.bindings.removeMember("_");
-                        if (!jv.isTrue()) {
-                            return fail("actual array length is " + listSize);
-                        }
-                    }
-                    if (macro.length() > closeBracketPos + 1) {
-                        macro = StringUtils.trimToNull(macro.substring(closeBracketPos + 1));
-                        if (macro != null) {
-                            if (macro.startsWith("(") && macro.endsWith(")")) {
-                                macro = macro.substring(1, macro.length() - 1); // strip parens
-                            }
-                            if (macro.startsWith("?")) { // #[]? _.length == 3
-                                macro = "#" + macro;
-                            }
-                            if (macro.startsWith("#")) {
-                                MatchOperation mo = new MatchOperation(context, Match.Type.EACH_EQUALS, actual, new Match.Value(macro));
-                                mo.execute();
-                                return mo.pass ? pass() : fail("all array elements matched");
-                            } else { // schema reference
-                                Match.Type nestedType = macroToMatchType(true, macro); // match each
-                                int startPos = matchTypeToStartPos(nestedType);
-                                macro = macro.substring(startPos);
-                                JsValue jv = context.JS.eval(macro);
-                                MatchOperation mo = new MatchOperation(context, nestedType, actual, new Match.Value(jv.getValue()));
-                                return mo.execute();
-                            }
-                        }
-                    }
-                    return true; // expression within square brackets is ok
+            }
+            case ARRAY: {
+                if (!actual.isList()) {
+                    return fail("actual is not an array");
                 }
-            } else { // '#? _ != 0' | '#string' | '#number? _ > 0'
-                int questionPos = macro.indexOf('?');
-                String validatorName = null;
-                // in case of regex we don't want to remove the '?'
-                if (questionPos != -1 && !macro.startsWith(REGEX)) {
-                    validatorName = macro.substring(0, questionPos);
-                    if (macro.length() > questionPos + 1) {
-                        macro = StringUtils.trimToEmpty(macro.substring(questionPos + 1));
-                    } else {
-                        macro = "";
+                if (macro.sizeFunction != null) {
+                    int listSize = actual.<List>getValue().size();
+                    JsValue jv = evalMacroFunction(macro.sizeFunction, listSize);
+                    if (!jv.isTrue()) {
+                        return fail("actual array length is " + listSize);
                     }
-                } else {
-                    validatorName = macro;
-                    macro = "";
                 }
-                validatorName = StringUtils.trimToNull(validatorName);
-                if (validatorName != null) {
-                    Match.Validator validator = null;
-                    if (validatorName.startsWith(REGEX)) {
-                        String regex = validatorName.substring(5).trim();
-                        validator = new Match.RegexValidator(regex);
-                    } else {
-                        validator = Match.VALIDATORS.get(validatorName);
-                    }
-                    if (validator != null) {
-                        if (optional && (actual.isNotPresent() || actual.isNull())) {
+                if (macro.eachMacro != null) {
+                    MatchOperation mo = new MatchOperation(context, Match.Type.EACH_EQUALS, actual, new Match.Value(macro.eachMacro));
+                    mo.execute();
+                    return mo.pass ? pass() : fail("all array elements matched");
+                }
+                if (macro.function != null) { // schema reference
+                    JsValue jv = evalMacroFunction(macro.function, actual.getValue());
+                    MatchOperation mo = new MatchOperation(context, macro.nestedType, actual, new Match.Value(jv.getValue()));
+                    return mo.execute();
+                }
+                return true; // expression within square brackets is ok
+            }
+            case VALIDATOR: {
+                if (macro.validatorName != null) {
+                    if (macro.validator != null) {
+                        if (macro.optional && (actual.isNotPresent() || actual.isNull())) {
                             // pass
-                        } else if (!optional && actual.isNotPresent()) {
+                        } else if (!macro.optional && actual.isNotPresent()) {
                             // if the element is not present the expected result can only be
                             // the notpresent keyword, ignored or an optional comparison
                             return expected.isNotPresent() || "#ignore".contentEquals(expected.getAsString());
                         } else {
-                            Match.Result mr = validator.apply(actual);
+                            Match.Result mr = macro.validator.apply(actual);
                             if (!mr.pass) {
                                 return fail(mr.message);
                             }
                         }
-                    } else if (!validatorName.startsWith(REGEX)) { // expected is a string that happens to start with "#"
+                    } else { // expected is a string that happens to start with "#"
                         String actualValue = actual.getValue();
                         switch (type) {
                             case CONTAINS:
@@ -368,22 +319,18 @@ public class MatchOperation {
                                 return actualValue.equals(expStr);
                         }
                     }
-
                 }
-                macro = StringUtils.trimToNull(macro);
-                if (macro != null && questionPos != -1) {
-                    context.JS.put("$", context.root.actual.getValue());
-                    context.JS.put("_", actual.getValue());
-                    JsValue jv = context.JS.eval(macro);
-                    context.JS.bindings.removeMember("$");
-                    context.JS.bindings.removeMember("_");
+                if (macro.function != null) {
+                    JsValue jv = evalMacroFunction(macro.function, actual.getValue());
                     if (!jv.isTrue()) {
                         return fail("evaluated to 'false'");
                     }
                 }
+                return true;
             }
+            default:
+                return true; // all ok
         }
-        return true; // all ok
     }
 
     private boolean actualEqualsExpected() {
@@ -538,6 +485,28 @@ public class MatchOperation {
                 if (type == Match.Type.CONTAINS_ONLY && expListCount != actListCount) {
                     return fail("actual array length is not equal to expected - " + actListCount + ":" + expListCount);
                 }
+                if (type != Match.Type.CONTAINS_DEEP && type != Match.Type.CONTAINS_ANY_DEEP) {
+                    Set actHashes = toHashables(actList, false);
+                    List expHashes = actHashes == null ? null : toHashables(expList, true);
+                    if (expHashes != null) {
+                        int missing = -1;
+                        boolean any = false;
+                        for (int i = 0; i < expListCount; i++) {
+                            if (actHashes.contains(expHashes.get(i))) {
+                                any = true;
+                            } else if (missing == -1) {
+                                missing = i;
+                            }
+                        }
+                        if (type == Match.Type.CONTAINS_ANY ? any : missing == -1) {
+                            return true;
+                        }
+                        if (type == Match.Type.NOT_CONTAINS) {
+                            return fail("actual array does not contain expected item - " + new Match.Value(expList.get(missing)).getAsString());
+                        }
+                        // else fall through, the item by item scan below is slow but builds the failure report
+                    }
+                }
                 for (Object exp : expList) { // for each item in the expected list
                     boolean found = false;
                     Match.Value expListValue = new Match.Value(exp);
@@ -597,6 +566,67 @@ public class MatchOperation {
         }
     }
 
+    private static final Object NOT_HASHABLE = new Object();
+
+    // reduces plain json to values where equals() and hashCode() agree with match EQUALS
+    // so that a list can be checked for containment in linear time, but anything that
+    // needs the full match logic (macros, big-decimals, xml etc.) returns NOT_HASHABLE
+    private static Object toHashable(Object o, boolean expected) {
+        if (o == null || o instanceof Boolean) {
+            return o;
+        }
+        if (o instanceof String) {
+            return expected && ((String) o).startsWith("#") ? NOT_HASHABLE : o;
+        }
+        if (o instanceof Number) {
+            if (o instanceof BigDecimal) {
+                return NOT_HASHABLE;
+            }
+            double d = ((Number) o).doubleValue();
+            if (Double.isNaN(d)) {
+                return NOT_HASHABLE;
+            }
+            return d == 0 ? 0d : d; // -0.0 and 0.0 are equal for a match
+        }
+        if (o instanceof List) {
+            List list = (List) o;
+            List<Object> result = new ArrayList(list.size());
+            for (Object item : list) {
+                Object hashable = toHashable(item, expected);
+                if (hashable == NOT_HASHABLE) {
+                    return NOT_HASHABLE;
+                }
+                result.add(hashable);
+            }
+            return result;
+        }
+        if (o instanceof Map) {
+            Map<String, Object> map = (Map) o;
+            Map<String, Object> result = new HashMap(map.size() * 2);
+            for (Map.Entry<String, Object> entry : map.entrySet()) {
+                Object hashable = toHashable(entry.getValue(), expected);
+                if (hashable == NOT_HASHABLE) {
+                    return NOT_HASHABLE;
+                }
+                result.put(entry.getKey(), hashable);
+            }
+            return result;
+        }
+        return NOT_HASHABLE;
+    }
+
+    private static <T extends Collection> T toHashables(List list, boolean expected) {
+        Collection<Object> result = expected ? new ArrayList(list.size()) : new HashSet(list.size() * 2);
+        for (Object o : list) {
+            Object hashable = toHashable(o, expected);
+            if (hashable == NOT_HASHABLE) {
+                return null;
+            }
+            result.add(hashable);
+        }
+        return (T) result;
+    }
+
     private boolean pass() {
         pass = true;
         return true;
@@ -631,16 +661,16 @@ public class MatchOperation {
         int prevDepth = -1;
         while (iterator.hasNext()) {
             MatchOperation mo = iterator.next();
-            if (previousPaths.contains(mo.context.path) || mo.isXmlAttributeOrMap()) {
+            if (previousPaths.contains(mo.context.getPath()) || mo.isXmlAttributeOrMap()) {
                 continue;
             }
-            previousPaths.add(mo.context.path);
+            previousPaths.add(mo.context.getPath());
             if (mo.context.depth != prevDepth) {
                 prevDepth = mo.context.depth;
                 index++;
             }
             String prefix = StringUtils.repeat(' ', index * 2);
-            sb.append(prefix).append(mo.context.path).append(" | ").append(mo.failReason);
+            sb.append(prefix).append(mo.context.getPath()).append(" | ").append(mo.failReason);
             sb.append(" (").append(mo.actual.type).append(':').append(mo.expected.type).append(")");
             sb.append('\n');
             if (mo.context.xml) {
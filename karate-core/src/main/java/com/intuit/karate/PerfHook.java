@@ -27,6 +27,8 @@ import com.intuit.karate.core.FeatureResult;
 import com.intuit.karate.core.PerfEvent;
 import com.intuit.karate.core.ScenarioRuntime;
 import com.intuit.karate.http.HttpRequest;
+import java.util.Collections;
+import java.util.Set;
 
 /**
  *
@@ -44,4 +46,36 @@ public interface PerfHook {
     
     void pause(Number millis);
 
+    // the rest is opt-in, only http calls (and karate.capturePerfEvent) are reported by default
+    //
+    /**
+     * keywords of the steps to time and report, e.g. "match", "eval", "def",
+     * "call", the name of the event is the keyword and the feature:line
+     */
+    default Set<String> getPerfStepKeywords() {
+        return Collections.emptySet();
+    }
+
+    // websocket send and listen (from the java / js api) as events
+    default boolean isPerfWebSocketEnabled() {
+        return false;
+    }
+
+    // a called feature as a group around the events within it, see reportPerfGroup()
+    default boolean isPerfCallGroupEnabled() {
+        return false;
+    }
+
+    /**
+     * called after a called feature completes, only if call groups are enabled
+     *
+     * @param event the name is the feature (file) name and the groups include
+     * it, start and end times are for the whole call
+     * @param cumulatedResponseTime the total time of the events within the
+     * group, including nested ones
+     */
+    default void reportPerfGroup(PerfEvent event, long cumulatedResponseTime) {
+
+    }
+
 }
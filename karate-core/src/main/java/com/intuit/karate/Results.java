@@ -25,15 +25,14 @@ package com.intuit.karate;
 
 import com.intuit.karate.core.FeatureResult;
 import com.intuit.karate.core.ScenarioResult;
-import com.intuit.karate.core.TagResults;
-import com.intuit.karate.core.TimelineResults;
+import com.intuit.karate.core.SummaryResults;
+import com.intuit.karate.report.ReportRenderer;
 import com.intuit.karate.report.ReportUtils;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Stream;
 
 /**
@@ -49,6 +48,7 @@ public class Results {
     private final int scenariosPassed;
     private final int scenariosFailed;
     private final double timeTakenMillis;
+    private final double longestScenarioMillis;
     private final long endTime;
     private final List<String> errors = new ArrayList();
     private final List<Map<String, Object>> featureSummary = new ArrayList();
@@ -62,42 +62,25 @@ public class Results {
         // endTime may not be set for junit
         endTime = suite.endTime == 0 ? System.currentTimeMillis() : suite.endTime;
         featuresSkipped = suite.skippedCount;
-        AtomicInteger fp = new AtomicInteger();
-        AtomicInteger ff = new AtomicInteger();
-        AtomicInteger sp = new AtomicInteger();
-        AtomicInteger sf = new AtomicInteger();
-        AtomicInteger time = new AtomicInteger();
-        TimelineResults timeline = new TimelineResults();
-        TagResults tags = new TagResults();
-        suite.getFeatureResults().forEach(fr -> {
-            if (!fr.isEmpty()) {
-                timeline.addFeatureResult(fr);
-                tags.addFeatureResult(fr);
-                if (fr.isFailed()) {
-                    ff.incrementAndGet();
-                } else {
-                    fp.incrementAndGet();
-                }
-                Long duration = Math.round(fr.getDurationMillis());
-                time.addAndGet(duration.intValue());
-                featureSummary.add(fr.toSummaryJson());
-            }
-            sp.addAndGet(fr.getPassedCount());
-            sf.addAndGet(fr.getFailedCount());
-            errors.addAll(fr.getErrors());
-        });
-        featuresPassed = fp.get();
-        featuresFailed = ff.get();
-        scenariosPassed = sp.get();
-        scenariosFailed = sf.get();
-        timeTakenMillis = time.get();
+        // aggregated in memory as features completed, no re-reading from disk
+        SummaryResults summary = suite.summaryResults;
+        featuresPassed = summary.getFeaturesPassed();
+        featuresFailed = summary.getFeaturesFailed();
+        scenariosPassed = summary.getScenariosPassed();
+        scenariosFailed = summary.getScenariosFailed();
+        timeTakenMillis = summary.getTimeTakenMillis();
+        longestScenarioMillis = summary.getLongestScenarioMillis();
+        errors.addAll(summary.getErrors());
+        featureSummary.addAll(summary.getFeatureSummary());
         saveStatsJson();
         printStats();
         if (suite.outputHtmlReport) {
-            suite.suiteReports.timelineReport(suite, timeline).render();
-            suite.suiteReports.tagsReport(suite, tags).render();
+            ReportRenderer renderer = suite.reportRenderer;
+            renderer.render(suite.suiteReports.timelineReport(suite, summary.getTimelineResults()));
+            renderer.render(suite.suiteReports.tagsReport(suite, summary.getTagResults()));
+            renderer.waitForPending(); // feature reports, rendered in the background
             // last so that path can be printed to the console 
-            File file = suite.suiteReports.summaryReport(suite, this).render();
+            File file = renderer.render(suite.suiteReports.summaryReport(suite, this));
             System.out.println("\nHTML report: (paste into browser to view) | Karate version: "
                     + FileUtils.KARATE_VERSION + "\n"
                     + file.toPath().toUri()
@@ -115,7 +98,7 @@ public class Results {
 
     private void saveStatsJson() {
         String json = JsonUtils.toJson(toKarateJson());
-        File file = new File(suite.reportDir + File.separator + "karate-summary-json.txt");
+        File file = new File(suite.reportDir + File.separator + Constants.KARATE_SUMMARY_JSON);
         FileUtils.writeToFile(file, json);
     }
 
@@ -125,8 +108,17 @@ public class Results {
         System.out.println(String.format("elapsed: %6.2f | threads: %4d | thread time: %.2f ",
                 getElapsedTime() / 1000, suite.threadCount, timeTakenMillis / 1000));
         System.out.println(String.format("features: %5d | skipped: %4d | efficiency: %.2f", getFeaturesTotal(), featuresSkipped, getEfficiency()));
+        if (suite.threadCount > 1) {
+            System.out.println(String.format("ideal: %8.2f | longest: %4.2f | vs ideal: %.2f",
+                    getIdealTime() / 1000, longestScenarioMillis / 1000, getSchedulingEfficiency()));
+        }
         System.out.println(String.format("scenarios: %4d | passed: %5d | failed: %d",
                 getScenariosTotal(), scenariosPassed, scenariosFailed));
+        Map<String, Object> pool = getHttpClientPoolStats();
+        if (pool != null) {
+            System.out.println(String.format("http pool: requests: %s | peak leased: %s | peak pending: %s | max: %s",
+                    pool.get("requests"), pool.get("peakLeased"), pool.get("peakPending"), pool.get("max")));
+        }
         System.out.println("======================================================");
         if (!errors.isEmpty()) {
             System.out.println(">>> failed features:");
@@ -147,11 +139,25 @@ public class Results {
         map.put("elapsedTime", getElapsedTime());
         map.put("totalTime", getTimeTakenMillis());
         map.put("efficiency", getEfficiency());
+        map.put("idealTime", getIdealTime());
+        map.put("schedulingEfficiency", getSchedulingEfficiency());
         map.put("resultDate", ReportUtils.getDateString());
         map.put("featureSummary", featureSummary);
+        Map<String, Object> pool = getHttpClientPoolStats();
+        if (pool != null) {
+            map.put("httpClientPool", pool);
+        }
         return map;
     }
 
+    // null if connection pooling was never enabled via configure
+    public Map<String, Object> getHttpClientPoolStats() {
+        if (suite.httpClientPool == null || suite.httpClientPool.isEmpty()) {
+            return null;
+        }
+        return suite.httpClientPool.getStats();
+    }
+
     public String getReportDir() {
         return suite.reportDir;
     }
@@ -168,6 +174,16 @@ public class Results {
         return timeTakenMillis / (getElapsedTime() * suite.threadCount);
     }
 
+    // lower bound for the elapsed time, perfect spread across threads
+    // but never less than the longest scenario, which cannot be split
+    public double getIdealTime() {
+        return Math.max(timeTakenMillis / suite.threadCount, longestScenarioMillis);
+    }
+
+    public double getSchedulingEfficiency() {
+        return getIdealTime() / getElapsedTime();
+    }
+
     public int getScenariosPassed() {
         return scenariosPassed;
     }
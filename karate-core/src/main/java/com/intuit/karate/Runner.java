@@ -36,6 +36,7 @@ import com.intuit.karate.report.SuiteReports;
 import com.intuit.karate.resource.ResourceUtils;
 import java.io.File;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 import org.slf4j.LoggerFactory;
 
@@ -74,11 +75,20 @@ public class Runner {
         return runFeature(feature, vars, evalKarateConfig);
     }
 
-    // this is called by karate-gatling !
-    public static void callAsync(Runner.Builder builder, String path, Map<String, Object> arg, PerfHook perfHook) {
+    // this is called by karate-gatling ! once per simulation (and set of tags), not per iteration
+    // because this reads the karate-config.js files and sets up the http client factory and caches
+    public static Suite suiteForAsync(Runner.Builder builder) {
         builder.features = Collections.emptyList(); // will skip expensive feature resolution in builder.resolveAll()
-        Suite suite = new Suite(builder);
-        Feature feature = FileUtils.parseFeatureAndCallTag(path);
+        return new Suite(builder);
+    }
+
+    public static void callAsync(Runner.Builder builder, String path, Map<String, Object> arg, PerfHook perfHook) {
+        callAsync(suiteForAsync(builder), path, arg, perfHook);
+    }
+
+    // this is called by karate-gatling ! the suite is shared, only the feature-runtime is per iteration
+    public static void callAsync(Suite suite, String path, Map<String, Object> arg, PerfHook perfHook) {
+        Feature feature = FileUtils.parseFeatureAndCallTag(path, suite.featureCache); // same path, every iteration
         FeatureRuntime featureRuntime = FeatureRuntime.of(suite, feature, arg, perfHook);
         featureRuntime.setNext(() -> perfHook.afterFeature(featureRuntime.result));
         perfHook.submit(featureRuntime);
@@ -193,6 +203,11 @@ public class Runner {
         SuiteReports suiteReports;
         JobConfig jobConfig;
         Map<String, DriverRunner> drivers;
+        int jsEnginePoolSize;
+        boolean karateConfigCache;
+        boolean durationAwareScheduling;
+        boolean virtualThreads;
+        int scenarioLogLimit;
 
         // synchronize because the main user is karate-gatling
         public synchronized Builder copy() {
@@ -207,8 +222,8 @@ public class Runner {
             b.timeoutMinutes = timeoutMinutes;
             b.reportDir = reportDir;
             b.scenarioName = scenarioName;
-            b.tags = tags;
-            b.paths = paths;
+            b.tags = tags == null ? null : new ArrayList(tags); // tags() and path() add to the list
+            b.paths = paths == null ? null : new ArrayList(paths);
             b.features = features;
             b.relativeTo = relativeTo;
             b.hooks.addAll(hooks); // final
@@ -227,6 +242,11 @@ public class Runner {
             b.suiteReports = suiteReports;
             b.jobConfig = jobConfig;
             b.drivers = drivers;
+            b.jsEnginePoolSize = jsEnginePoolSize;
+            b.karateConfigCache = karateConfigCache;
+            b.durationAwareScheduling = durationAwareScheduling;
+            b.virtualThreads = virtualThreads;
+            b.scenarioLogLimit = scenarioLogLimit;
             return b;
         }
 
@@ -324,11 +344,12 @@ public class Runner {
                     feature.setCallName(scenarioName);
                 }
             }
+            // read outside the lock (double-checked) by parallel scenarios
             if (callSingleCache == null) {
-                callSingleCache = new HashMap();
+                callSingleCache = new ConcurrentHashMap();
             }
             if (callOnceCache == null) {
-                callOnceCache = new HashMap();
+                callOnceCache = new ConcurrentHashMap();
             }
             if (suiteReports == null) {
                 suiteReports = SuiteReports.DEFAULT;
@@ -562,6 +583,79 @@ public class Runner {
             return (T) this;
         }
 
+        /**
+         * re-use js contexts across scenarios instead of creating a new one for
+         * every scenario, note that variables in a (top-level) FeatureResult
+         * are not usable after the run when this is enabled
+         *
+         * @param size max number of idle js contexts retained, zero (the
+         * default) disables pooling
+         * @return builder
+         */
+        public T jsEnginePool(int size) {
+            jsEnginePoolSize = size;
+            return (T) this;
+        }
+
+        /**
+         * evaluate karate-base.js, karate-config.js and karate-config-env.js
+         * only once for the whole suite instead of for every scenario, the
+         * resulting variables and configure settings are snapshot and
+         * deep-copied into each scenario, so this should only be used when the
+         * config does not depend on the scenario it runs for
+         *
+         * @param value true to enable, default false
+         * @return builder
+         */
+        public T karateConfigCache(boolean value) {
+            karateConfigCache = value;
+            return (T) this;
+        }
+
+        /**
+         * when running in parallel, start the features that took the longest
+         * in the previous run (as per the summary in the report dir) first,
+         * and run scenarios on a work-stealing pool, this shortens the overall
+         * time when a few features are much slower than the rest
+         *
+         * @param value true to enable, default false
+         * @return builder
+         */
+        public T durationAwareScheduling(boolean value) {
+            durationAwareScheduling = value;
+            return (T) this;
+        }
+
+        /**
+         * when running in parallel, run each scenario on a virtual thread (java
+         * 21+) and treat the thread count as a limit on concurrent scenarios,
+         * which can then be much higher than the number of os threads - since
+         * most time is spent waiting on http or drivers, falls back to
+         * platform threads (with a warning) if the jvm does not support this
+         *
+         * @param value true to enable, default false
+         * @return builder
+         */
+        public T virtualThreads(boolean value) {
+            virtualThreads = value;
+            return (T) this;
+        }
+
+        /**
+         * caps the log kept in memory (and in the reports) per scenario, for
+         * example when large http payloads are logged, the beginning of the
+         * scenario log is kept, and after that the end of what each step
+         * logged with a marker in between, the rest goes to a file per
+         * scenario under the report dir
+         *
+         * @param maxChars zero or less for no limit, which is the default
+         * @return builder
+         */
+        public T scenarioLogLimit(int maxChars) {
+            scenarioLogLimit = maxChars;
+            return (T) this;
+        }
+
         public Results jobManager(JobConfig value) {
             jobConfig = value;
             Suite suite = new Suite(this);
@@ -24,16 +24,23 @@
 package com.intuit.karate;
 
 import com.intuit.karate.core.Feature;
+import com.intuit.karate.core.FeatureCache;
 import com.intuit.karate.core.FeatureResult;
 import com.intuit.karate.core.FeatureRuntime;
 import com.intuit.karate.driver.DriverRunner;
+import com.intuit.karate.graal.JsEnginePool;
+import com.intuit.karate.report.ReportRenderer;
 import com.intuit.karate.report.ReportUtils;
 import com.intuit.karate.core.Scenario;
 import com.intuit.karate.core.ScenarioCall;
 import com.intuit.karate.core.ScenarioResult;
 import com.intuit.karate.core.ScenarioRuntime;
+import com.intuit.karate.core.SummaryResults;
 import com.intuit.karate.core.SyncExecutorService;
+import com.intuit.karate.core.TagSelector;
 import com.intuit.karate.core.Tags;
+import com.intuit.karate.core.VirtualThreadExecutorService;
+import com.intuit.karate.http.ApacheHttpClientPool;
 import com.intuit.karate.http.HttpClientFactory;
 import com.intuit.karate.job.JobManager;
 import com.intuit.karate.report.SuiteReports;
@@ -43,13 +50,17 @@ import java.io.File;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.stream.Stream;
@@ -69,6 +80,7 @@ public class Suite implements Runnable {
 
     public final String env;
     public final String tagSelector;
+    public final TagSelector compiledTagSelector;
     public final boolean dryRun;
     public final boolean debugMode;
     public final File workingDir;
@@ -81,6 +93,9 @@ public class Suite implements Runnable {
     public final List<Feature> features;
     public final List<CompletableFuture> futures;
     public final Set<File> featureResultFiles;
+    public final SummaryResults summaryResults;
+    public final FeatureCache featureCache;
+    public final ReportRenderer reportRenderer;
     public final Collection<RuntimeHook> hooks;
     public final HttpClientFactory clientFactory;
     public final Map<String, String> systemProperties;
@@ -104,10 +119,17 @@ public class Suite implements Runnable {
 
     public final Map<String, Object> callSingleCache;
     public final Map<String, ScenarioCall.Result> callOnceCache;
+    public final Map<String, ScenarioCall.Result> karateConfigCache;
     private final ReentrantLock progressFileLock;
 
     public final Map<String, DriverRunner> drivers;
 
+    public final JsEnginePool jsEnginePool;
+    public final ApacheHttpClientPool httpClientPool;
+    public final boolean durationAwareScheduling;
+    public final boolean virtualThreads;
+    public final int scenarioLogLimit;
+
     private String read(String name) {
         try {
             Resource resource = ResourceUtils.getResource(workingDir, name);
@@ -141,6 +163,7 @@ public class Suite implements Runnable {
             env = rb.env;
             systemProperties = null;
             tagSelector = null;
+            compiledTagSelector = null;
             threadCount = -1;
             timeoutMinutes = -1;
             hooks = Collections.EMPTY_LIST;
@@ -148,6 +171,9 @@ public class Suite implements Runnable {
             featuresFound = -1;
             futures = null;
             featureResultFiles = null;
+            summaryResults = null;
+            featureCache = new FeatureCache();
+            reportRenderer = null;
             workingDir = FileUtils.WORKING_DIR;
             buildDir = FileUtils.getBuildDir();
             reportDir = FileUtils.getBuildDir();
@@ -159,10 +185,16 @@ public class Suite implements Runnable {
             pendingTasks = null;
             callSingleCache = null;
             callOnceCache = null;
+            karateConfigCache = null;
             suiteReports = null;
             jobManager = null;
             progressFileLock = null;
             drivers = null;
+            jsEnginePool = null;
+            httpClientPool = null;
+            durationAwareScheduling = false;
+            virtualThreads = false;
+            scenarioLogLimit = 0;
         } else {
             startTime = System.currentTimeMillis();
             rb.resolveAll();
@@ -177,14 +209,19 @@ public class Suite implements Runnable {
             env = rb.env;
             systemProperties = rb.systemProperties;
             tagSelector = Tags.fromKarateOptionsTags(rb.tags);
+            compiledTagSelector = TagSelector.compile(tagSelector);
             hooks = rb.hooks;
             features = rb.features;
             featuresFound = features.size();
             futures = new ArrayList(featuresFound);
             callSingleCache = rb.callSingleCache;
             callOnceCache = rb.callOnceCache;
+            karateConfigCache = rb.karateConfigCache ? new ConcurrentHashMap(1) : null;
             suiteReports = rb.suiteReports;
             featureResultFiles = new HashSet();
+            summaryResults = new SummaryResults();
+            featureCache = new FeatureCache();
+            reportRenderer = new ReportRenderer();
             workingDir = rb.workingDir;
             buildDir = rb.buildDir;
             reportDir = rb.reportDir;
@@ -201,10 +238,30 @@ public class Suite implements Runnable {
                 jobManager = null;
             }
             drivers = rb.drivers;
+            jsEnginePool = rb.jsEnginePoolSize > 0 ? new JsEnginePool(rb.jsEnginePoolSize) : null;
+            httpClientPool = new ApacheHttpClientPool(); // only used if enabled via configure
             threadCount = rb.threadCount;
             timeoutMinutes = rb.timeoutMinutes;
             parallel = threadCount > 1;
-            if (parallel) {
+            scenarioLogLimit = rb.scenarioLogLimit;
+            durationAwareScheduling = rb.durationAwareScheduling && parallel;
+            virtualThreads = rb.virtualThreads && parallel && VirtualThreadExecutorService.isSupported();
+            if (rb.virtualThreads && parallel && !virtualThreads) {
+                logger.warn("virtual threads not supported by this jvm (java 21+ needed), using {} platform threads", threadCount);
+            }
+            if (virtualThreads) {
+                // thread count is the concurrency limit, not the number of os threads
+                scenarioExecutor = new VirtualThreadExecutorService(threadCount);
+                pendingTasks = Executors.newSingleThreadExecutor();
+            } else if (durationAwareScheduling) {
+                // fifo (async mode) so that the longest-first order of submission is kept
+                scenarioExecutor = new ForkJoinPool(threadCount, pool -> {
+                    ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                    thread.setContextClassLoader(classLoader);
+                    return thread;
+                }, null, true);
+                pendingTasks = Executors.newSingleThreadExecutor();
+            } else if (parallel) {
                 scenarioExecutor = Executors.newFixedThreadPool(threadCount);
                 pendingTasks = Executors.newSingleThreadExecutor();
             } else {
@@ -218,12 +275,14 @@ public class Suite implements Runnable {
     @Override
     public void run() {
         try {
+            // has to be done before the old report dir is backed up
+            List<Feature> ordered = durationAwareScheduling ? sortByPreviousDuration(features) : features;
             if (backupReportDir) {
                 backupReportDirIfExists();
             }
             hooks.forEach(h -> h.beforeSuite(this));
             int index = 0;
-            for (Feature feature : features) {
+            for (Feature feature : ordered) {
                 final int featureNum = ++index;
                 FeatureRuntime fr = FeatureRuntime.of(this, feature);
                 final CompletableFuture future = new CompletableFuture();
@@ -255,17 +314,21 @@ public class Suite implements Runnable {
             if (jobManager != null) {
                 jobManager.server.stop();
             }
+            httpClientPool.close();
+            reportRenderer.close(); // waits for any feature reports still rendering
+            logger.debug("feature cache: {}", featureCache);
             hooks.forEach(h -> h.afterSuite(this));
         }
     }
 
     public void saveFeatureResults(FeatureResult fr) {
+        summaryResults.addFeatureResult(fr);
         File file = ReportUtils.saveKarateJson(reportDir, fr, null);
         synchronized (featureResultFiles) {
             featureResultFiles.add(file);
         }
         if (outputHtmlReport) {
-            suiteReports.featureReport(this, fr).render();
+            reportRenderer.submit(() -> suiteReports.featureReport(this, fr));
         }
         if (outputCucumberJson) {
             ReportUtils.saveCucumberJson(reportDir, fr, null);
@@ -344,6 +407,35 @@ public class Suite implements Runnable {
         return buildResults();
     }
 
+    // longest-processing-time first, using the durations in the previous summary report
+    // features not seen before go first since they could be long
+    private List<Feature> sortByPreviousDuration(List<Feature> list) {
+        File file = new File(reportDir + File.separator + Constants.KARATE_SUMMARY_JSON);
+        if (!file.exists()) {
+            logger.debug("no previous run found for duration-aware scheduling: {}", file);
+            return list;
+        }
+        Map<String, Double> durations = new HashMap();
+        try {
+            Map<String, Object> summary = Json.of(FileUtils.toString(file)).asMap();
+            List<Map<String, Object>> featureSummary = (List) summary.get("featureSummary");
+            for (Map<String, Object> map : featureSummary) {
+                Number duration = (Number) map.get("durationMillis");
+                durations.put((String) map.get("packageQualifiedName"), duration.doubleValue());
+            }
+        } catch (Exception e) {
+            logger.warn("failed to read previous durations: {} - {}", file, e + "");
+            return list;
+        }
+        List<Feature> sorted = new ArrayList(list);
+        // stable, so discovery order is retained for features with equal weight
+        sorted.sort((a, b) -> Double.compare(
+                durations.getOrDefault(b.getPackageQualifiedName(), Double.MAX_VALUE),
+                durations.getOrDefault(a.getPackageQualifiedName(), Double.MAX_VALUE)));
+        logger.debug("duration-aware scheduling, known durations: {} of {}", durations.size(), sorted.size());
+        return sorted;
+    }
+
     private void backupReportDirIfExists() {
         File file = new File(reportDir);
         if (file.exists()) {
@@ -35,6 +35,9 @@ import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import javax.xml.namespace.QName;
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.transform.OutputKeys;
@@ -67,6 +70,38 @@ public class XmlUtils {
         // only static methods
     }
 
+    private static final int XPATH_CACHE_SIZE = 256;
+    private static final int POOL_SIZE = 32;
+
+    // the factory look-ups are expensive, and none of these are thread-safe
+    // so they are borrowed from small shared pools, which unlike thread-locals
+    // also works for (short-lived) virtual threads
+    private static final BlockingQueue<DocumentBuilder> DOCUMENT_BUILDERS = new ArrayBlockingQueue(POOL_SIZE);
+    private static final BlockingQueue<TransformerFactory> TRANSFORMER_FACTORIES = new ArrayBlockingQueue(POOL_SIZE);
+    private static final BlockingQueue<XPath> XPATHS = new ArrayBlockingQueue(POOL_SIZE);
+
+    // no namespace context is ever set, so the path alone is the key
+    // compiled expressions are not thread-safe either, so each path has its own pool
+    private static final Map<String, BlockingQueue<XPathExpression>> XPATH_CACHE = new LinkedHashMap<String, BlockingQueue<XPathExpression>>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, BlockingQueue<XPathExpression>> eldest) {
+            return size() > XPATH_CACHE_SIZE;
+        }
+    };
+
+    private static DocumentBuilder borrowDocumentBuilder() {
+        DocumentBuilder builder = DOCUMENT_BUILDERS.poll();
+        if (builder == null) {
+            try {
+                return DocumentBuilderFactory.newInstance().newDocumentBuilder();
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        }
+        builder.reset();
+        return builder;
+    }
+
     public static String toString(Node node) {
         return toString(node, false);
     }
@@ -78,7 +113,10 @@ public class XmlUtils {
         DOMSource domSource = new DOMSource(node);
         StringWriter writer = new StringWriter();
         StreamResult result = new StreamResult(writer);
-        TransformerFactory tf = TransformerFactory.newInstance();
+        TransformerFactory tf = TRANSFORMER_FACTORIES.poll();
+        if (tf == null) {
+            tf = TransformerFactory.newInstance();
+        }
         try {
             Transformer transformer = tf.newTransformer();
             transformer.setOutputProperty(OutputKeys.OMIT_XML_DECLARATION, "yes");
@@ -92,6 +130,8 @@ public class XmlUtils {
             return writer.toString();
         } catch (Exception e) {
             throw new RuntimeException(e);
+        } finally {
+            TRANSFORMER_FACTORIES.offer(tf);
         }
     }
 
@@ -120,9 +160,8 @@ public class XmlUtils {
     }
 
     public static Document toXmlDoc(String xml) {
-        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        DocumentBuilder builder = borrowDocumentBuilder();
         try {
-            DocumentBuilder builder = factory.newDocumentBuilder();
             DtdEntityResolver dtdEntityResolver = new DtdEntityResolver();
             builder.setEntityResolver(dtdEntityResolver);
             InputStream is = FileUtils.toInputStream(xml);
@@ -136,28 +175,47 @@ public class XmlUtils {
             }
         } catch (Exception e) {
             throw new RuntimeException(e);
+        } finally {
+            DOCUMENT_BUILDERS.offer(builder); // reset when borrowed again
         }
     }
 
     private static XPathExpression compile(String path) {
-        XPathFactory xPathfactory = XPathFactory.newInstance();
-        XPath xpath = xPathfactory.newXPath();
+        XPath xpath = XPATHS.poll();
+        if (xpath == null) {
+            xpath = XPathFactory.newInstance().newXPath();
+        }
         try {
             return xpath.compile(path);
         } catch (Exception e) {
             throw new RuntimeException(e);
+        } finally {
+            XPATHS.offer(xpath);
         }
     }
 
-    public static NodeList getNodeListByPath(Node node, String path) {
-        XPathExpression expr = compile(path);
+    private static Object evaluate(Node node, String path, QName returnType) {
+        BlockingQueue<XPathExpression> pool;
+        synchronized (XPATH_CACHE) {
+            pool = XPATH_CACHE.computeIfAbsent(path, k -> new ArrayBlockingQueue(POOL_SIZE));
+        }
+        XPathExpression expr = pool.poll();
+        if (expr == null) {
+            expr = compile(path);
+        }
         try {
-            return (NodeList) expr.evaluate(node, XPathConstants.NODESET);
-        } catch (Exception e) {
+            return expr.evaluate(node, returnType);
+        } catch (XPathExpressionException e) {
             throw new RuntimeException(e);
+        } finally {
+            pool.offer(expr);
         }
     }
 
+    public static NodeList getNodeListByPath(Node node, String path) {
+        return (NodeList) evaluate(node, path, XPathConstants.NODESET);
+    }
+
     public static String stripNameSpacePrefixes(String path) {
         if (path.indexOf(':') == -1) {
             return path;
@@ -177,13 +235,7 @@ public class XmlUtils {
 
     public static Node getNodeByPath(Node node, String path, boolean create) {
         String searchPath = create ? stripNameSpacePrefixes(path) : path;
-        XPathExpression expr = compile(searchPath);
-        Node result;
-        try {
-            result = (Node) expr.evaluate(node, XPathConstants.NODE);
-        } catch (XPathExpressionException e) {
-            throw new RuntimeException(e);
-        }
+        Node result = (Node) evaluate(node, searchPath, XPathConstants.NODE);
         if (result == null && create) {
             Document doc = node.getNodeType() == Node.DOCUMENT_NODE ? (Document) node : node.getOwnerDocument();
             return createNodeByPath(doc, path);
@@ -222,12 +274,7 @@ public class XmlUtils {
     }
 
     public static String getTextValueByPath(Node node, String path) {
-        XPathExpression expr = compile(path);
-        try {
-            return expr.evaluate(node);
-        } catch (Exception e) {
-            throw new RuntimeException(e);
-        }
+        return (String) evaluate(node, path, XPathConstants.STRING);
     }
 
     public static void setByPath(Node doc, String path, String value) {
@@ -427,14 +474,12 @@ public class XmlUtils {
     }
 
     public static Document newDocument() {
-        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-        DocumentBuilder builder;
+        DocumentBuilder builder = borrowDocumentBuilder();
         try {
-            builder = factory.newDocumentBuilder();
-        } catch (Exception e) {
-            throw new RuntimeException(e);
+            return builder.newDocument();
+        } finally {
+            DOCUMENT_BUILDERS.offer(builder);
         }
-        return builder.newDocument();
     }
 
     public static void addAttributes(Element element, Map<String, Object> map) {
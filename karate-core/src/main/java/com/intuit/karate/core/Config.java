@@ -53,6 +53,8 @@ public class Config {
     public static final int DEFAULT_RETRY_COUNT = 3;
     public static final int DEFAULT_TIMEOUT = 30000;
     public static final int DEFAULT_HIGHLIGHT_DURATION = 3000;
+    public static final int DEFAULT_POOL_MAX_TOTAL = 200;
+    public static final int DEFAULT_POOL_MAX_PER_ROUTE = 20;
 
     private boolean sslEnabled = false;
     private String sslAlgorithm = "TLS";
@@ -72,6 +74,11 @@ public class Config {
     private String proxyPassword;
     private List<String> nonProxyHosts;
     private String localAddress;
+    private boolean connectionPoolEnabled = false;
+    private int connectionPoolMaxTotal = DEFAULT_POOL_MAX_TOTAL;
+    private int connectionPoolMaxPerRoute = DEFAULT_POOL_MAX_PER_ROUTE;
+    private int connectionPoolKeepAlive = -1;
+    private int connectionPoolIdleTimeout = DEFAULT_TIMEOUT;
     private int responseDelay;
     private boolean lowerCaseResponseHeaders = false;
     private boolean corsEnabled = false;
@@ -132,6 +139,7 @@ public class Config {
         afterFeature = attach(afterFeature, je);
         headers = attach(headers, je);
         cookies = attach(cookies, je);
+        responseHeaders = attach(responseHeaders, je);
     }
 
     protected void detach() {
@@ -139,6 +147,7 @@ public class Config {
         afterFeature = detach(afterFeature);
         headers = detach(headers);
         cookies = detach(cookies);
+        responseHeaders = detach(responseHeaders);
     }
 
     private static <T> T get(Map<String, Object> map, String key, T defaultValue) {
@@ -291,6 +300,18 @@ public class Config {
             case "localAddress":
                 localAddress = value.getAsString();
                 return true;
+            case "connectionPool":
+                if (value.isMap()) {
+                    Map<String, Object> map = value.getValue();
+                    connectionPoolEnabled = get(map, "enabled", true);
+                    connectionPoolMaxTotal = get(map, "maxTotal", connectionPoolMaxTotal);
+                    connectionPoolMaxPerRoute = get(map, "maxPerRoute", connectionPoolMaxPerRoute);
+                    connectionPoolKeepAlive = get(map, "keepAlive", connectionPoolKeepAlive);
+                    connectionPoolIdleTimeout = get(map, "idleTimeout", connectionPoolIdleTimeout);
+                } else {
+                    connectionPoolEnabled = value.isTrue();
+                }
+                return true;
             case "continueOnStepFailure":
                 continueOnStepFailureMethods.clear(); // clears previous configuration - in case someone is trying to chain these and forgets resetting the previous one
 
@@ -343,6 +364,11 @@ public class Config {
         proxyPassword = parent.proxyPassword;
         nonProxyHosts = parent.nonProxyHosts;
         localAddress = parent.localAddress;
+        connectionPoolEnabled = parent.connectionPoolEnabled;
+        connectionPoolMaxTotal = parent.connectionPoolMaxTotal;
+        connectionPoolMaxPerRoute = parent.connectionPoolMaxPerRoute;
+        connectionPoolKeepAlive = parent.connectionPoolKeepAlive;
+        connectionPoolIdleTimeout = parent.connectionPoolIdleTimeout;
         responseDelay = parent.responseDelay;
         lowerCaseResponseHeaders = parent.lowerCaseResponseHeaders;
         corsEnabled = parent.corsEnabled;
@@ -446,6 +472,26 @@ public class Config {
         return localAddress;
     }
 
+    public boolean isConnectionPoolEnabled() {
+        return connectionPoolEnabled;
+    }
+
+    public int getConnectionPoolMaxTotal() {
+        return connectionPoolMaxTotal;
+    }
+
+    public int getConnectionPoolMaxPerRoute() {
+        return connectionPoolMaxPerRoute;
+    }
+
+    public int getConnectionPoolKeepAlive() {
+        return connectionPoolKeepAlive;
+    }
+
+    public int getConnectionPoolIdleTimeout() {
+        return connectionPoolIdleTimeout;
+    }
+
     public Variable getHeaders() {
         return headers;
     }
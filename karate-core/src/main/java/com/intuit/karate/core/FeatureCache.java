@@ -0,0 +1,129 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2021 Intuit Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.intuit.karate.core;
+
+import com.intuit.karate.resource.MemoryResource;
+import com.intuit.karate.resource.Resource;
+import java.io.File;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * parsed features, so that a "call read('foo.feature')" in a loop (or on every
+ * gatling iteration) does not re-run the lexer and parser each time, a file on
+ * disk is re-parsed if its last-modified time or size has changed, a feature
+ * that is returned from here is shared, and the call-tag is part of the key
+ * because it is held by the feature itself
+ *
+ * @author pthomas3
+ */
+public class FeatureCache {
+
+    // one per suite, which for karate-gatling lives as long as the simulation
+    private static final int MAX_SIZE = 512;
+
+    static class Entry {
+
+        final long version;
+        final Feature feature;
+
+        Entry(long version, Feature feature) {
+            this.version = version;
+            this.feature = feature;
+        }
+
+    }
+
+    private final Map<String, Entry> cache = new ConcurrentHashMap();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    private static String key(Resource resource, String callTag) {
+        String path = resource.getPrefixedPath();
+        return callTag == null ? path : path + "|" + callTag;
+    }
+
+    private static long version(Resource resource) {
+        File file = resource.getFile();
+        if (file == null) { // in a jar, cannot change
+            return 0;
+        }
+        return file.lastModified() * 31 + file.length();
+    }
+
+    public Feature read(Resource resource, String callTag) {
+        if (resource instanceof MemoryResource) { // no stable identity
+            return parse(resource, callTag);
+        }
+        String key = key(resource, callTag);
+        long version = version(resource);
+        Entry entry = cache.get(key);
+        if (entry != null && entry.version == version) {
+            hits.incrementAndGet();
+            return entry.feature;
+        }
+        misses.incrementAndGet();
+        // a race here only means a redundant parse
+        Feature feature = parse(resource, callTag);
+        if (entry == null && cache.size() >= MAX_SIZE) { // crude, but we only expect a few hundred features
+            cache.clear();
+        }
+        cache.put(key, new Entry(version, feature));
+        return feature;
+    }
+
+    private static Feature parse(Resource resource, String callTag) {
+        Feature feature = Feature.read(resource);
+        feature.setCallTag(callTag);
+        return feature;
+    }
+
+    public void invalidate(Resource resource) {
+        String path = key(resource, null);
+        cache.keySet().removeIf(k -> k.equals(path) || k.startsWith(path + "|"));
+    }
+
+    public void clear() {
+        cache.clear();
+    }
+
+    public int size() {
+        return cache.size();
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    @Override
+    public String toString() {
+        return "size: " + cache.size() + ", hits: " + hits + ", misses: " + misses;
+    }
+
+}
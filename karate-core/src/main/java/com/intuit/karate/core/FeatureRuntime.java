@@ -29,8 +29,11 @@ import com.intuit.karate.Suite;
 import com.intuit.karate.resource.MemoryResource;
 import com.intuit.karate.resource.Resource;
 import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import org.slf4j.Logger;
@@ -58,6 +61,47 @@ public class FeatureRuntime implements Runnable {
 
     private Runnable next;
 
+    // gatling only, see PerfHook
+    private String perfName;
+    private List<String> perfGroups;
+    private long perfGroupResponseTime;
+
+    // short, for event names e.g. "match users:12"
+    public String getPerfName() {
+        if (perfName == null) {
+            String path = feature.getResource().getFileNameWithoutExtension();
+            perfName = path.substring(path.lastIndexOf('/') + 1);
+        }
+        return perfName;
+    }
+
+    // the called features from the top, empty for the top-level feature
+    public List<String> getPerfGroups() {
+        if (perfGroups == null) {
+            if (caller.isNone()) {
+                perfGroups = Collections.emptyList();
+            } else {
+                List<String> list = new ArrayList(caller.parentRuntime.featureRuntime.getPerfGroups());
+                list.add(getPerfName());
+                perfGroups = list;
+            }
+        }
+        return perfGroups;
+    }
+
+    // adds to this and every enclosing group, nested events count towards the outer groups
+    protected void addPerfGroupResponseTime(long time) {
+        FeatureRuntime fr = this;
+        while (!fr.caller.isNone()) {
+            fr.perfGroupResponseTime += time;
+            fr = fr.caller.parentRuntime.featureRuntime;
+        }
+    }
+
+    public long getPerfGroupResponseTime() {
+        return perfGroupResponseTime;
+    }
+
     public Resource resolveFromThis(String path) {
         return feature.getResource().resolve(path);
     }
@@ -168,10 +212,21 @@ public class FeatureRuntime implements Runnable {
     }
 
     private ScenarioRuntime lastExecutedScenario;
+    private boolean lastExecutedScenarioDone;
 
     private void processScenario(ScenarioRuntime sr) {
         if (beforeHook()) {
-            lastExecutedScenario = sr;
+            ScenarioRuntime prev;
+            boolean prevDone;
+            synchronized (this) {
+                prev = lastExecutedScenario;
+                prevDone = lastExecutedScenarioDone;
+                lastExecutedScenario = sr;
+                lastExecutedScenarioDone = false;
+            }
+            if (prevDone) {
+                releaseJsEngine(prev);
+            }
             if (suite.jobManager != null) {
                 CompletableFuture future = suite.jobManager.addChunk(sr);
                 logger.info("waiting for job executor to process: {}", sr);
@@ -180,6 +235,17 @@ public class FeatureRuntime implements Runnable {
             } else {
                 sr.run();
             }
+            boolean done;
+            synchronized (this) {
+                // the last one is kept aside for the after-feature hook and result variables
+                done = lastExecutedScenario != sr;
+                if (!done) {
+                    lastExecutedScenarioDone = true;
+                }
+            }
+            if (done) {
+                releaseJsEngine(sr);
+            }
             // can be empty for distributed / job-server flows
             if (!sr.result.getStepResults().isEmpty()) {
                 synchronized (result) {
@@ -201,11 +267,19 @@ public class FeatureRuntime implements Runnable {
                 hook.afterFeature(this);
             }
         }
+        releaseJsEngine(lastExecutedScenario);
         if (next != null) {
             next.run();
         }
     }
 
+    private void releaseJsEngine(ScenarioRuntime sr) {
+        // only top-level, values from called features flow back to the caller
+        if (sr != null && caller.isNone() && suite.jsEnginePool != null) {
+            sr.engine.releaseJsEngine();
+        }
+    }
+
     @Override
     public String toString() {
         return feature.toString();
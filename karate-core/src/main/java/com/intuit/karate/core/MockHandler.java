@@ -27,7 +27,10 @@ import com.intuit.karate.ScenarioActions;
 import com.intuit.karate.Suite;
 import com.intuit.karate.StringUtils;
 import com.intuit.karate.Json;
+import com.intuit.karate.JsonUtils;
+import com.intuit.karate.LogAppender;
 import com.intuit.karate.KarateException;
+import com.intuit.karate.graal.JsEnginePool;
 import com.intuit.karate.graal.JsValue;
 import com.intuit.karate.http.HttpUtils;
 import com.intuit.karate.http.Request;
@@ -66,17 +69,49 @@ public class MockHandler implements ServerHandler {
     private static final String BODY_PATH = "bodyPath";
 
     private final LinkedHashMap<Feature, ScenarioRuntime> features = new LinkedHashMap<>(); // feature + holds global config and vars
-    private final Map<String, Variable> globals = new HashMap<>();
+    private final Map<Feature, MockRouter> routers = new HashMap<>();
+    private final Map<Feature, Config> configs = new HashMap<>(); // detached, copied for each request if concurrent
+    private volatile Map<String, Variable> globals = new HashMap<>(); // replaced, not mutated if concurrent
+    private final Object globalsLock = new Object();
     private boolean corsEnabled;
+    private boolean concurrent;
 
     protected static final ThreadLocal<Request> LOCAL_REQUEST = new ThreadLocal<>();
     private String prefix = "";
+    private JsEnginePool jsEnginePool;
 
     public MockHandler withPrefix(String prefix) {
         this.prefix = prefix;
         return this;
     }
 
+    public MockHandler withJsEnginePool(int size) {
+        jsEnginePool = size > 0 ? new JsEnginePool(size) : null;
+        return this;
+    }
+
+    /**
+     * handle requests in parallel instead of one at a time, each request
+     * works on a deep copy of the global variables and only the variables it
+     * changed are merged back (copy-on-write), maps key by key and lists by
+     * appended items, so concurrent inserts into the same map or list are all
+     * kept, any other concurrent update to the same value is "last one wins",
+     * also a "configure" within a request applies only to that request and
+     * does not carry over to later requests - mocks that rely on strictly
+     * sequential updates to shared state should not enable this
+     *
+     * @param concurrent true to enable, default false
+     * @return this
+     */
+    public MockHandler withConcurrent(boolean concurrent) {
+        this.concurrent = concurrent;
+        if (concurrent) {
+            // a mock never collects this buffer, and it is not thread-safe
+            features.values().forEach(runtime -> runtime.logger.setAppender(LogAppender.NO_OP));
+        }
+        return this;
+    }
+
     public MockHandler(Feature feature) {
         this(feature, null);
     }
@@ -117,9 +152,27 @@ public class MockHandler implements ServerHandler {
             }
             corsEnabled = corsEnabled || runtime.engine.getConfig().isCorsEnabled();
             globals.putAll(runtime.engine.detachVariables());
+            Config config = new Config(runtime.engine.getConfig());
+            config.detach(); // functions are re-attached to the js context of each request
+            configs.put(feature, config);
+            MockRouter router = new MockRouter(getScenarios(feature, runtime));
             runtime.logger.info("mock server initialized: {}", feature);
+            runtime.logger.debug("scenarios routed without js: {}, evaluated as js: {}", router.getCompiledCount(), router.getEvaluatedCount());
             this.features.put(feature, runtime);
+            this.routers.put(feature, router);
+        }
+    }
+
+    private static List<Scenario> getScenarios(Feature feature, ScenarioRuntime runtime) {
+        List<Scenario> scenarios = new ArrayList<>();
+        for (FeatureSection fs : feature.getSections()) {
+            if (fs.isOutline()) {
+                runtime.logger.warn("skipping scenario outline - {}:{}", feature, fs.getScenarioOutline().getLine());
+                break;
+            }
+            scenarios.add(fs.getScenario());
         }
+        return scenarios;
     }
 
     private void initRuntime(ScenarioRuntime runtime) {
@@ -138,7 +191,16 @@ public class MockHandler implements ServerHandler {
     private static final String ALLOWED_METHODS = "GET, HEAD, POST, PUT, DELETE, PATCH";
 
     @Override
-    public synchronized Response handle(Request req) { // note the [synchronized]
+    public Response handle(Request req) {
+        if (concurrent) {
+            return handleRequest(req);
+        }
+        synchronized (this) { // the default, one request at a time
+            return handleRequest(req);
+        }
+    }
+
+    private Response handleRequest(Request req) {
         if (corsEnabled && "OPTIONS".equals(req.getMethod())) {
             Response response = new Response(200);
             response.setHeader("Allow", ALLOWED_METHODS);
@@ -161,66 +223,82 @@ public class MockHandler implements ServerHandler {
             Thread.currentThread().setContextClassLoader(runtime.featureRuntime.suite.classLoader);
             LOCAL_REQUEST.set(req);
             req.processBody();
-            ScenarioEngine engine = createScenarioEngine(req, runtime);
-            Map<String, List<Map<String, Object>>> parts = req.getMultiParts();
-            if (parts != null) {
-                engine.setHiddenVariable(REQUEST_PARTS, parts);
-            }
-            for (FeatureSection fs : feature.getSections()) {
-                if (fs.isOutline()) {
-                    runtime.logger.warn("skipping scenario outline - {}:{}", feature, fs.getScenarioOutline().getLine());
-                    break;
-                }
-                Scenario scenario = fs.getScenario();
-                if (isMatchingScenario(scenario, engine)) {
-                    Map<String, Object> configureHeaders;
-                    Variable response, responseStatus, responseHeaders, responseDelay;
-                    ScenarioActions actions = new ScenarioActions(engine);
-                    Result result = PASSED;
-                    result = executeScenarioSteps(feature, runtime, scenario, actions, result);
-                    engine.mockAfterScenario();
-                    configureHeaders = engine.mockConfigureHeaders();
-                    response = engine.vars.remove(ScenarioEngine.RESPONSE);
-                    responseStatus = engine.vars.remove(ScenarioEngine.RESPONSE_STATUS);
-                    responseHeaders = engine.vars.remove(ScenarioEngine.RESPONSE_HEADERS);
-                    responseDelay = engine.vars.remove(RESPONSE_DELAY);
-                    globals.putAll(engine.detachVariables());
-                    Response res = new Response(200);
-                    if (result.isFailed()) {
-                        response = new Variable(result.getError().getMessage());
-                        responseStatus = new Variable(500);
-                    } else {
-                        if (corsEnabled) {
-                            res.setHeader("Access-Control-Allow-Origin", "*");
-                        }
-                        res.setHeaders(configureHeaders);
-                        if (responseHeaders != null && responseHeaders.isMap()) {
-                            res.setHeaders(responseHeaders.getValue());
-                        }
-                        if (responseDelay != null) {
-                            res.setDelay(responseDelay.getAsInt());
-                        }
-                    }
-                    if (response != null && !response.isNull()) {
-                        res.setBody(response.getAsByteArray());
-                        if (res.getContentType() == null) {
-                            ResourceType rt = ResourceType.fromObject(response.getValue());
-                            if (rt != null) {
-                                res.setContentType(rt.contentType);
-                            }
-                        }
-                    }
-                    if (responseStatus != null) {
-                        res.setStatus(responseStatus.getAsInt());
-                    }
+            Map<String, Variable> snapshot = globals;
+            ScenarioEngine engine = createScenarioEngine(req, runtime, snapshot);
+            try {
+                Response res = handleFeature(req, feature, runtime, engine, snapshot);
+                if (res != null) {
                     return res;
                 }
+            } finally {
+                engine.releaseJsEngine();
             }
         }
         logger.warn("no scenarios matched, returning 404: {}", req); // NOTE: not logging with engine.logger
         return new Response(404);
     }
 
+    private Response handleFeature(Request req, Feature feature, ScenarioRuntime runtime, ScenarioEngine engine, Map<String, Variable> snapshot) {
+        Map<String, List<Map<String, Object>>> parts = req.getMultiParts();
+        if (parts != null) {
+            engine.setHiddenVariable(REQUEST_PARTS, parts);
+        }
+        MockRouter.Route route = routers.get(feature).find(req.getMethod(), req.getPath(), r -> isMatchingScenario(r, engine));
+        if (route == null) {
+            return null;
+        }
+        Scenario scenario = route.scenario;
+        if (route.expression == null) {
+            engine.logger.debug("default scenario matched at line: {}", scenario.getLine());
+        } else if (route.compiled) {
+            if (route.path != null) { // what pathMatches() would have done
+                engine.setVariable(PATH_PARAMS, HttpUtils.parseUriPattern(route.path, req.getPath()));
+            }
+            engine.logger.debug("scenario matched at line {}: {}", scenario.getLine(), route.expression);
+        }
+        Map<String, Object> configureHeaders;
+        Variable response, responseStatus, responseHeaders, responseDelay;
+        ScenarioActions actions = new ScenarioActions(engine);
+        Result result = PASSED;
+        result = executeScenarioSteps(feature, runtime, scenario, actions, result);
+        engine.mockAfterScenario();
+        configureHeaders = engine.mockConfigureHeaders();
+        response = engine.vars.remove(ScenarioEngine.RESPONSE);
+        responseStatus = engine.vars.remove(ScenarioEngine.RESPONSE_STATUS);
+        responseHeaders = engine.vars.remove(ScenarioEngine.RESPONSE_HEADERS);
+        responseDelay = engine.vars.remove(RESPONSE_DELAY);
+        updateGlobals(snapshot, engine.detachVariables());
+        Response res = new Response(200);
+        if (result.isFailed()) {
+            response = new Variable(result.getError().getMessage());
+            responseStatus = new Variable(500);
+        } else {
+            if (corsEnabled) {
+                res.setHeader("Access-Control-Allow-Origin", "*");
+            }
+            res.setHeaders(configureHeaders);
+            if (responseHeaders != null && responseHeaders.isMap()) {
+                res.setHeaders(responseHeaders.getValue());
+            }
+            if (responseDelay != null) {
+                res.setDelay(responseDelay.getAsInt());
+            }
+        }
+        if (response != null && !response.isNull()) {
+            res.setBody(response.getAsByteArray());
+            if (res.getContentType() == null) {
+                ResourceType rt = ResourceType.fromObject(response.getValue());
+                if (rt != null) {
+                    res.setContentType(rt.contentType);
+                }
+            }
+        }
+        if (responseStatus != null) {
+            res.setStatus(responseStatus.getAsInt());
+        }
+        return res;
+    }
+
     private Result executeScenarioSteps(Feature feature, ScenarioRuntime runtime, Scenario scenario, ScenarioActions actions, Result result) {
         for (Step step : scenario.getSteps()) {
             result = StepRuntime.execute(step, actions);
@@ -238,10 +316,80 @@ public class MockHandler implements ServerHandler {
         return result;
     }
 
-    private ScenarioEngine createScenarioEngine(Request req, ScenarioRuntime runtime) {
-        ScenarioEngine engine = new ScenarioEngine(runtime, new HashMap<>(globals));
+    private void updateGlobals(Map<String, Variable> snapshot, Map<String, Variable> detached) {
+        if (!concurrent) {
+            globals.putAll(detached);
+            return;
+        }
+        synchronized (globalsLock) {
+            Map<String, Variable> merged = new HashMap<>(globals);
+            detached.forEach((k, v) -> {
+                // only what this request changed, so that concurrent updates of other variables are not lost
+                Variable prev = snapshot.get(k);
+                Variable current = merged.get(k);
+                if (prev == null || current == null) {
+                    merged.put(k, v);
+                } else if (!Objects.equals(prev.getValue(), v.getValue())) {
+                    Object value = merge(current.getValue(), prev.getValue(), v.getValue());
+                    merged.put(k, value == v.getValue() ? v : new Variable(value));
+                }
+            });
+            globals = merged;
+        }
+    }
+
+    // three-way merge of what one request changed (before -> after) into the current value
+    // the inputs are never mutated, other requests may still be reading them
+    private static Object merge(Object current, Object before, Object after) {
+        if (Objects.equals(before, after)) {
+            return current;
+        }
+        if (current instanceof Map && before instanceof Map && after instanceof Map) {
+            Map<String, Object> beforeMap = (Map) before;
+            Map<String, Object> afterMap = (Map) after;
+            Map<String, Object> result = new LinkedHashMap((Map) current);
+            afterMap.forEach((k, v) -> {
+                if (beforeMap.containsKey(k) && result.containsKey(k)) {
+                    result.put(k, merge(result.get(k), beforeMap.get(k), v));
+                } else if (!beforeMap.containsKey(k) || !Objects.equals(beforeMap.get(k), v)) {
+                    result.put(k, v);
+                }
+            });
+            beforeMap.keySet().forEach(k -> {
+                if (!afterMap.containsKey(k)) {
+                    result.remove(k);
+                }
+            });
+            return result;
+        }
+        if (current instanceof List && before instanceof List && after instanceof List) {
+            List beforeList = (List) before;
+            List afterList = (List) after;
+            int count = beforeList.size();
+            if (afterList.size() > count && afterList.subList(0, count).equals(beforeList)) {
+                List result = new ArrayList((List) current);
+                result.addAll(afterList.subList(count, afterList.size()));
+                return result;
+            }
+        }
+        return after;
+    }
+
+    private ScenarioEngine createScenarioEngine(Request req, ScenarioRuntime runtime, Map<String, Variable> snapshot) {
+        Map<String, Variable> vars = new HashMap<>(snapshot.size());
+        if (concurrent) { // nested data must not be shared across threads
+            snapshot.forEach((k, v) -> vars.put(k, new Variable(JsonUtils.deepCopy(v.getValue()))));
+        } else {
+            vars.putAll(snapshot);
+        }
+        // configure in a request must not leak into other requests running at the same time
+        Config config = concurrent ? new Config(configs.get(runtime.featureRuntime.feature)) : runtime.engine.getConfig();
+        ScenarioEngine engine = new ScenarioEngine(config, runtime, vars, runtime.logger);
         ScenarioEngine.set(engine);
-        engine.init();
+        engine.init(jsEnginePool);
+        if (concurrent) { // the shared config functions belong to the js context of the background
+            engine.setConfig(config);
+        }
         engine.setVariable(ScenarioEngine.REQUEST_URL_BASE, req.getUrlBase());
         engine.setVariable(ScenarioEngine.REQUEST_URI, req.getPath());
         engine.setVariable(ScenarioEngine.REQUEST_METHOD, req.getMethod());
@@ -252,12 +400,9 @@ public class MockHandler implements ServerHandler {
         return engine;
     }
 
-    private boolean isMatchingScenario(Scenario scenario, ScenarioEngine engine) {
-        String expression = StringUtils.trimToNull(scenario.getName() + scenario.getDescription());
-        if (expression == null) {
-            engine.logger.debug("default scenario matched at line: {}", scenario.getLine());
-            return true;
-        }
+    private boolean isMatchingScenario(MockRouter.Route route, ScenarioEngine engine) {
+        Scenario scenario = route.scenario;
+        String expression = route.expression;
         try {
             Variable v = engine.evalJs(expression);
             if (v.isTrue()) {
@@ -0,0 +1,203 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2021 Intuit Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.intuit.karate.core;
+
+import com.intuit.karate.StringUtils;
+import com.intuit.karate.http.HttpUtils;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * routes a request to the first matching mock scenario, scenario expressions
+ * that are only made of pathMatches() and / or methodIs() with literal
+ * arguments are compiled into a path trie at load time, everything else is
+ * evaluated as js - but only for scenarios that come before the best compiled
+ * match, so that the "first scenario wins" behavior is preserved
+ *
+ * @author pthomas3
+ */
+class MockRouter {
+
+    private static final Pattern TERM = Pattern.compile("(pathMatches|methodIs)\\(\\s*(['\"])([^'\"\\\\]*)\\2\\s*\\)");
+
+    static class Route {
+
+        final int index;
+        final Scenario scenario;
+        final String expression; // null for the default (catch-all) scenario
+        final String method; // null if any
+        final String path; // null if any
+        final boolean compiled;
+
+        Route(int index, Scenario scenario, String expression, String method, String path, boolean compiled) {
+            this.index = index;
+            this.scenario = scenario;
+            this.expression = expression;
+            this.method = method;
+            this.path = path;
+            this.compiled = compiled;
+        }
+
+        boolean isMethodMatch(String requestMethod) {
+            return method == null || method.equalsIgnoreCase(requestMethod);
+        }
+
+    }
+
+    static class Node {
+
+        final Map<String, Node> literals = new HashMap();
+        Node wildcard;
+        final List<Route> routes = new ArrayList(1);
+
+    }
+
+    private final Node root = new Node();
+    private final List<Route> anyPath = new ArrayList(); // compiled, but no path condition
+    private final List<Route> evaluated = new ArrayList(); // js fallback, in order
+
+    MockRouter(List<Scenario> scenarios) {
+        int index = 0;
+        for (Scenario scenario : scenarios) {
+            Route route = compile(index++, scenario);
+            if (!route.compiled) {
+                evaluated.add(route);
+            } else if (route.path == null) {
+                anyPath.add(route);
+            } else {
+                Node node = root;
+                for (String segment : StringUtils.split(route.path, '/', false)) {
+                    if (segment.startsWith("{") && segment.endsWith("}")) {
+                        if (node.wildcard == null) {
+                            node.wildcard = new Node();
+                        }
+                        node = node.wildcard;
+                    } else {
+                        node = node.literals.computeIfAbsent(segment, k -> new Node());
+                    }
+                }
+                node.routes.add(route);
+            }
+        }
+    }
+
+    static Route compile(int index, Scenario scenario) {
+        String expression = StringUtils.trimToNull(scenario.getName() + scenario.getDescription());
+        if (expression == null) {
+            return new Route(index, scenario, null, null, null, true);
+        }
+        String method = null;
+        String path = null;
+        for (String term : expression.split("&&")) {
+            Matcher matcher = TERM.matcher(term.trim());
+            if (!matcher.matches()) {
+                return new Route(index, scenario, expression, null, null, false);
+            }
+            String arg = matcher.group(3);
+            if ("pathMatches".equals(matcher.group(1))) {
+                if (path != null) {
+                    return new Route(index, scenario, expression, null, null, false);
+                }
+                path = arg;
+            } else {
+                if (method != null) {
+                    return new Route(index, scenario, expression, null, null, false);
+                }
+                method = arg;
+            }
+        }
+        return new Route(index, scenario, expression, method, path, true);
+    }
+
+    int getCompiledCount() {
+        return root.routes.size() + countRoutes(root) + anyPath.size();
+    }
+
+    int getEvaluatedCount() {
+        return evaluated.size();
+    }
+
+    private static int countRoutes(Node node) {
+        int count = 0;
+        for (Node child : node.literals.values()) {
+            count += child.routes.size() + countRoutes(child);
+        }
+        if (node.wildcard != null) {
+            count += node.wildcard.routes.size() + countRoutes(node.wildcard);
+        }
+        return count;
+    }
+
+    Route find(String method, String path, Predicate<Route> evaluator) {
+        Route best = null;
+        for (Route route : anyPath) {
+            if (route.isMethodMatch(method)) {
+                best = route;
+                break; // in order, first is lowest
+            }
+        }
+        int qpos = path.indexOf('?');
+        String cleanPath = qpos == -1 ? path : path.substring(0, qpos);
+        List<String> segments = StringUtils.split(cleanPath, '/', false);
+        best = find(root, segments, 0, method, path, best);
+        for (Route route : evaluated) {
+            if (best != null && route.index > best.index) {
+                break;
+            }
+            if (evaluator.test(route)) {
+                return route;
+            }
+        }
+        return best;
+    }
+
+    private static Route find(Node node, List<String> segments, int pos, String method, String path, Route best) {
+        if (pos == segments.size()) {
+            for (Route route : node.routes) {
+                if (best != null && route.index > best.index) {
+                    break;
+                }
+                // re-check with the same routine that pathMatches() uses
+                if (route.isMethodMatch(method) && HttpUtils.parseUriPattern(route.path, path) != null) {
+                    return route;
+                }
+            }
+            return best;
+        }
+        Node literal = node.literals.get(segments.get(pos));
+        if (literal != null) {
+            best = find(literal, segments, pos + 1, method, path, best);
+        }
+        if (node.wildcard != null) {
+            best = find(node.wildcard, segments, pos + 1, method, path, best);
+        }
+        return best;
+    }
+
+}
@@ -68,6 +68,8 @@ public class MockServer extends HttpServer {
         File keyFile;
         Map<String, Object> args;
         String prefix = "";
+        int jsEnginePoolSize;
+        boolean concurrent;
         
         public Builder watch(boolean value) {
             watch = value;
@@ -100,6 +102,25 @@ public class MockServer extends HttpServer {
             return this;
         }
 
+        /**
+         * re-use js contexts across requests, mock scenarios should not
+         * configure js functions (e.g. afterScenario) if this is enabled
+         */
+        public Builder jsEnginePool(int size) {
+            jsEnginePoolSize = size;
+            return this;
+        }
+
+        /**
+         * serve requests in parallel instead of one at a time, see
+         * {@link MockHandler#withConcurrent(boolean)} for how global variables
+         * are updated
+         */
+        public Builder concurrent(boolean value) {
+            concurrent = value;
+            return this;
+        }
+
         public Builder args(Map<String, Object> value) {
             args = value;
             return this;
@@ -126,7 +147,8 @@ public class MockServer extends HttpServer {
             } else {
                 sb.http(port);
             }
-            ServerHandler handler = watch ? new ReloadingMockHandler(features, args, prefix) : new MockHandler(features, args).withPrefix(prefix);
+            ServerHandler handler = watch ? new ReloadingMockHandler(features, args, prefix, jsEnginePoolSize, concurrent)
+                    : new MockHandler(features, args).withPrefix(prefix).withJsEnginePool(jsEnginePoolSize).withConcurrent(concurrent);
             HttpService service = new HttpServerHandler(handler);
             sb.service("prefix:/" + prefix, service);
             return new MockServer(sb);
@@ -137,18 +159,22 @@ public class MockServer extends HttpServer {
     private static class ReloadingMockHandler implements ServerHandler {
                 
         private final Map<String, Object> args;
-        private MockHandler handler;
+        private volatile MockHandler handler;
         private final LinkedHashMap<File, Long> files = new LinkedHashMap<>();
         private final String prefix;
+        private final int jsEnginePoolSize;
+        private final boolean concurrent;
 
-        public ReloadingMockHandler(List<Feature> features, Map<String, Object> args, String prefix) {
+        public ReloadingMockHandler(List<Feature> features, Map<String, Object> args, String prefix, int jsEnginePoolSize, boolean concurrent) {
             this.args = args;
             this.prefix = prefix;
+            this.jsEnginePoolSize = jsEnginePoolSize;
+            this.concurrent = concurrent;
             for (Feature f : features) {
                 this.files.put(f.getResource().getFile(), f.getResource().getFile().lastModified());
             }
             logger.debug("watch mode init - {}", files);
-            handler = new MockHandler(features, args).withPrefix(prefix);
+            handler = new MockHandler(features, args).withPrefix(prefix).withJsEnginePool(jsEnginePoolSize).withConcurrent(concurrent);
         }
 
         @Override
@@ -156,7 +182,7 @@ public class MockServer extends HttpServer {
             boolean reload = files.entrySet().stream().reduce(false, (modified, entry) -> entry.getKey().lastModified() > entry.getValue(), (a, b) -> a || b);
             if(reload) {
                 List<Feature> features = files.keySet().stream().map(f -> Feature.read(f)).collect(Collectors.toList());
-                handler = new MockHandler(features, args).withPrefix(prefix);
+                handler = new MockHandler(features, args).withPrefix(prefix).withJsEnginePool(jsEnginePoolSize).withConcurrent(concurrent);
             }
             return handler.handle(request);
         }
@@ -50,17 +50,15 @@ public abstract class ParallelProcessor<T> {
         this.monitor = monitor;
     }
 
-    private Runnable toRunnable(final CompletableFuture prevFuture, final T next, final CompletableFuture future) {
+    private Runnable toRunnable(final T next, final CompletableFuture future) {
         return () -> {
-            if (prevFuture != null) {
-                prevFuture.join();
-            }
             try {
                 process(next);
             } catch (Exception e) {
                 logger.error("[parallel] input item failed: {}", e.getMessage());
+            } finally {
+                future.complete(Boolean.TRUE);
             }
-            future.complete(Boolean.TRUE);
         };
     }
 
@@ -71,7 +69,19 @@ public abstract class ParallelProcessor<T> {
             futures.add(future);
             T next = publisher.next();
             boolean sync = shouldRunSynchronously(next);
-            executor.submit(toRunnable(prevFuture, next, future));
+            Runnable runnable = toRunnable(next, future);
+            if (prevFuture == null) {
+                executor.submit(runnable);
+            } else {
+                // chained as a continuation, so that no worker thread is parked
+                // waiting for the previous (sequential) item to finish
+                CompletableFuture<Void> chained = prevFuture.thenRunAsync(runnable, executor);
+                chained.exceptionally(t -> {
+                    logger.error("[parallel] input item could not be scheduled: {}", t.getMessage());
+                    future.complete(Boolean.TRUE);
+                    return null;
+                });
+            }
             prevFuture = sync ? future : null;
         }
         final CompletableFuture[] futuresArray = futures.toArray(new CompletableFuture[futures.size()]);
@@ -23,6 +23,9 @@
  */
 package com.intuit.karate.core;
 
+import java.util.Collections;
+import java.util.List;
+
 /**
  *
  * @author pthomas3
@@ -36,6 +39,7 @@ public class PerfEvent {
 
     private boolean failed;
     private String message;
+    private List<String> groups = Collections.emptyList(); // names of the called features, outermost first
 
     public PerfEvent(long startTime, long endTime, String name, int statusCode) {
         this.name = name;
@@ -76,6 +80,14 @@ public class PerfEvent {
         this.message = message;
     }
 
+    public List<String> getGroups() {
+        return groups;
+    }
+
+    public void setGroups(List<String> groups) {
+        this.groups = groups;
+    }
+
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder();
@@ -83,6 +95,9 @@ public class PerfEvent {
         sb.append(", startTime: ").append(startTime);
         sb.append(", endTime: ").append(endTime);
         sb.append(", statusCode: ").append(statusCode);
+        if (!groups.isEmpty()) {
+            sb.append(", groups: ").append(groups);
+        }
         sb.append("]");
         return sb.toString();
     }
@@ -79,10 +79,11 @@ public class Scenario {
         }
     }
 
-    // only called for dynamic scenarios
+    // for dynamic scenarios, and for a scenario whose name is evaluated
     public Scenario copy(int exampleIndex) {
         Scenario s = new Scenario(feature, section, exampleIndex);
         s.name = name;
+        s.exampleData = exampleData;
         s.description = description;
         s.tags = tags;
         s.line = line;
@@ -95,6 +96,7 @@ public class Scenario {
             temp.setEndLine(step.getEndLine());
             temp.setPrefix(step.getPrefix());
             temp.setText(step.getText());
+            temp.setMethodMatch(step.getMethodMatch());
             temp.setDocString(step.getDocString());
             temp.setTable(step.getTable());
         }
@@ -164,7 +164,13 @@ public class ScenarioBridge implements PerfContext, EventContext {
         return JsValue.fromJava(result.getValue());
     }
 
+    // the cache can be a ConcurrentHashMap, which does not allow null values
+    private static final Object CALL_SINGLE_NULL = new Object();
+
     private static Object callSingleResult(ScenarioEngine engine, Object o) throws Exception {
+        if (o == CALL_SINGLE_NULL) {
+            o = null;
+        }
         if (o instanceof Exception) {
             engine.logger.warn("callSingle() cached result is an exception");
             throw (Exception) o;
@@ -248,7 +254,7 @@ public class ScenarioBridge implements PerfContext, EventContext {
                 // functions have to be detached so that they can be re-hydrated in another js context
                 result = engine.recurseAndDetachAndShallowClone(resultVar.getValue());
             }
-            CACHE.put(fileName, result);
+            CACHE.put(fileName, result == null ? CALL_SINGLE_NULL : result);
             engine.logger.info("<< lock released, cached callSingle: {}", fileName);
             return callSingleResult(engine, result);
         }
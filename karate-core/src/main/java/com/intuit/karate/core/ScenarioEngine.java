@@ -36,6 +36,7 @@ import com.intuit.karate.driver.Driver;
 import com.intuit.karate.driver.DriverOptions;
 import com.intuit.karate.driver.Key;
 import com.intuit.karate.graal.JsEngine;
+import com.intuit.karate.graal.JsEnginePool;
 import com.intuit.karate.graal.JsExecutable;
 import com.intuit.karate.graal.JsFunction;
 import com.intuit.karate.graal.JsLambda;
@@ -110,6 +111,7 @@ public class ScenarioEngine {
     private Throwable failedReason;
 
     protected JsEngine JS;
+    private JsEnginePool jsEnginePool;
 
     // only used by mock server
     public ScenarioEngine(ScenarioRuntime runtime, Map<String, Variable> vars) {
@@ -271,15 +273,32 @@ public class ScenarioEngine {
                 prevPerfEvent.setMessage(failureMessage);
             }
             runtime.featureRuntime.perfHook.reportPerfEvent(prevPerfEvent);
+            if (!prevPerfEvent.getGroups().isEmpty()) {
+                runtime.featureRuntime.addPerfGroupResponseTime(prevPerfEvent.getEndTime() - prevPerfEvent.getStartTime());
+            }
         }
         prevPerfEvent = null;
     }
 
     public void capturePerfEvent(PerfEvent event) {
         logLastPerfEvent(null);
+        if (runtime.perfMode && runtime.featureRuntime.perfHook.isPerfCallGroupEnabled()) {
+            event.setGroups(runtime.featureRuntime.getPerfGroups());
+        }
         prevPerfEvent = event;
     }
 
+    // the events within the called feature have been reported by now, when each of its scenarios ended
+    private void reportPerfGroup(FeatureRuntime fr, long startTime) {
+        PerfEvent pe = new PerfEvent(startTime, System.currentTimeMillis(), fr.getPerfName(), 200);
+        pe.setGroups(fr.getPerfGroups());
+        if (fr.result.isFailed()) {
+            pe.setFailed(true);
+            pe.setMessage(fr.result.getErrorMessages());
+        }
+        runtime.featureRuntime.perfHook.reportPerfGroup(pe, fr.getPerfGroupResponseTime());
+    }
+
     // http ====================================================================
     //
     protected HttpRequestBuilder requestBuilder; // see init() method
@@ -735,6 +754,9 @@ public class ScenarioEngine {
 
     public WebSocketClient webSocket(WebSocketOptions options) {
         WebSocketClient webSocketClient = new WebSocketClient(options, logger);
+        if (runtime.perfMode && runtime.featureRuntime.perfHook.isPerfWebSocketEnabled()) {
+            webSocketClient.setPerfEventHandler(this::capturePerfEvent);
+        }
         if (webSocketClients == null) {
             webSocketClients = new ArrayList();
         }
@@ -995,7 +1017,12 @@ public class ScenarioEngine {
     //==========================================================================        
     //       
     public void init() { // not in constructor because it has to be on Runnable.run() thread 
-        JS = JsEngine.local();
+        init(jsEnginePool == null ? runtime.featureRuntime.suite.jsEnginePool : jsEnginePool);
+    }
+
+    protected void init(JsEnginePool pool) {
+        jsEnginePool = pool;
+        JS = pool == null ? JsEngine.local() : pool.acquire();
         logger.trace("js context: {}", JS);
         // to avoid re-processing objects that have cyclic dependencies
         Set<Object> seen = Collections.newSetFromMap(new IdentityHashMap());
@@ -1042,6 +1069,14 @@ public class ScenarioEngine {
         }
     }
 
+    // only call this when no value created in the js context is going to be used again
+    protected void releaseJsEngine() {
+        if (jsEnginePool != null && JS != null) {
+            jsEnginePool.release(JS);
+            JS = null;
+        }
+    }
+
     protected Map<String, Variable> detachVariables() {
         Set<Object> seen = Collections.newSetFromMap(new IdentityHashMap());
         Map<String, Variable> detached = new HashMap(vars.size());
@@ -1051,7 +1086,33 @@ public class ScenarioEngine {
         });
         return detached;
     }
-    
+
+    // karate-config cache, only variables that the config routines added or changed are kept
+    // deep-copied first so that detaching does not mutate the live variables of this scenario
+    protected ScenarioCall.Result snapshotConfig(Map<String, Variable> before) {
+        Set<Object> seen = Collections.newSetFromMap(new IdentityHashMap());
+        Map<String, Variable> detached = new HashMap();
+        vars.forEach((k, v) -> {
+            if (before.get(k) != v) {
+                Object o = recurseAndDetachAndShallowClone(k, JsonUtils.deepCopy(v.getValue()), seen);
+                detached.put(k, new Variable(o));
+            }
+        });
+        Config clonedConfig = new Config(config);
+        clonedConfig.detach();
+        return new ScenarioCall.Result(Variable.NULL, clonedConfig, detached);
+    }
+
+    protected void restoreConfig(ScenarioCall.Result result) {
+        Set<Object> seen = Collections.newSetFromMap(new IdentityHashMap());
+        result.vars.forEach((k, v) -> {
+            // deep-copy so that a scenario cannot modify the nested data that the next one will see
+            Object o = recurseAndAttachAndShallowClone(JsonUtils.deepCopy(v.getValue()), seen);
+            setVariable(k, o);
+        });
+        setConfig(new Config(result.config));
+    }
+
     // callSingle
     protected Object recurseAndAttachAndShallowClone(Object o) {
         return recurseAndAttachAndShallowClone(o, Collections.newSetFromMap(new IdentityHashMap()));
@@ -2004,11 +2065,16 @@ public class ScenarioEngine {
             call.setLoopIndex(index);
             call.setSharedScope(sharedScope);
             FeatureRuntime fr = new FeatureRuntime(call);
+            boolean perfGroup = runtime.perfMode && runtime.featureRuntime.perfHook.isPerfCallGroupEnabled();
+            long startTime = perfGroup ? System.currentTimeMillis() : 0;
             fr.run();
             // VERY IMPORTANT ! switch back from called feature js context
             THREAD_LOCAL.set(this);
             FeatureResult result = fr.result;
             runtime.addCallResult(result);
+            if (perfGroup) {
+                reportPerfGroup(fr, startTime);
+            }
             if (result.isFailed()) {
                 KarateException ke = result.getErrorMessagesCombined();
                 throw ke;
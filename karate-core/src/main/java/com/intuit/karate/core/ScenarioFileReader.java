@@ -61,9 +61,7 @@ public class ScenarioFileReader {
             return readFileAsString(text);
         } else if (isFeatureFile(text)) {
             Resource fr = toResource(text);
-            Feature feature = Feature.read(fr);
-            feature.setCallTag(pair.right);
-            return feature;
+            return featureRuntime.suite.featureCache.read(fr, pair.right);
         } else if (isCsvFile(text)) {
             String contents = readFileAsString(text);
             return JsonUtils.fromCsv(contents);
@@ -91,7 +91,7 @@ public class ScenarioOutline {
                 // getting examples in the context of an execution
                 // if the examples do not have any tagged example, do not worry about selecting
                 Tags tableTags = Tags.merge(fr.feature.getTags(), tags, examples.getTags());
-                boolean executeForTable = tableTags.evaluate(fr.suite.tagSelector, fr.suite.env);
+                boolean executeForTable = tableTags.evaluate(fr.suite.compiledTagSelector, fr.suite.env);
                 if (executeForTable) {
                     selectedForExecution = true;
                 }
@@ -29,6 +29,7 @@ import com.intuit.karate.Logger;
 import com.intuit.karate.RuntimeHook;
 import com.intuit.karate.ScenarioActions;
 import com.intuit.karate.StringUtils;
+import com.intuit.karate.Suite;
 import com.intuit.karate.debug.DebugThread;
 import com.intuit.karate.graal.JsEngine;
 import com.intuit.karate.http.ResourceType;
@@ -67,12 +68,18 @@ public class ScenarioRuntime implements Runnable {
     }
 
     public ScenarioRuntime(FeatureRuntime featureRuntime, Scenario scenario, ScenarioRuntime background) {
+        // the feature can be shared (see FeatureCache), so a name that is evaluated is set on a copy
+        if (isNameEvaluated(scenario.getName())) {
+            scenario = scenario.copy(scenario.getExampleIndex());
+        }
         logger = new Logger();
         this.featureRuntime = featureRuntime;
         this.caller = featureRuntime.caller;
         perfMode = featureRuntime.perfHook != null;
         if (caller.isNone()) {
-            logAppender = new StringLogAppender(false);
+            logAppender = featureRuntime.suite.scenarioLogLimit > 0
+                    ? new StringLogAppender(false, featureRuntime.suite.scenarioLogLimit, getLogSpillFile(featureRuntime.suite, scenario))
+                    : new StringLogAppender(false);
             engine = new ScenarioEngine(background == null ? new Config() : background.engine.getConfig(), this, new HashMap(), logger);
         } else if (caller.isSharedScope()) {
             logAppender = caller.parentRuntime.logAppender;
@@ -161,6 +168,10 @@ public class ScenarioRuntime implements Runnable {
         callResults.add(fr);
     }
 
+    private static File getLogSpillFile(Suite suite, Scenario scenario) {
+        return new File(suite.reportDir + File.separator + "karate-logs" + File.separator + scenario.getUniqueId() + ".log");
+    }
+
     public LogAppender getLogAppender() {
         return logAppender;
     }
@@ -298,6 +309,36 @@ public class ScenarioRuntime implements Runnable {
         }
     }
 
+    private void evalConfigJs() {
+        evalConfigJs(featureRuntime.suite.karateBase, "karate-base.js");
+        evalConfigJs(featureRuntime.suite.karateConfig, "karate-config.js");
+        evalConfigJs(featureRuntime.suite.karateConfigEnv, "karate-config-" + featureRuntime.suite.env + ".js");
+    }
+
+    private static final String KARATE_CONFIG_CACHE_KEY = "karate-config";
+
+    private void evalConfigJsCached() {
+        final Map<String, ScenarioCall.Result> CACHE = featureRuntime.suite.karateConfigCache;
+        ScenarioCall.Result result = CACHE.get(KARATE_CONFIG_CACHE_KEY);
+        if (result == null) {
+            synchronized (CACHE) {
+                result = CACHE.get(KARATE_CONFIG_CACHE_KEY); // retry
+                if (result == null) {
+                    // this thread is the 'winner'
+                    Map<String, Variable> before = new HashMap(engine.vars);
+                    evalConfigJs();
+                    if (configFailed) { // not cached, so that every scenario reports the failure
+                        return;
+                    }
+                    CACHE.put(KARATE_CONFIG_CACHE_KEY, engine.snapshotConfig(before));
+                    logger.debug("cached karate-config result");
+                    return; // this scenario already has the live result
+                }
+            }
+        }
+        engine.restoreConfig(result);
+    }
+
     private static boolean isSelectedForExecution(FeatureRuntime fr, Scenario scenario, Tags tags) {
         Feature feature = scenario.getFeature();
         int callLine = feature.getCallLine();
@@ -330,7 +371,7 @@ public class ScenarioRuntime implements Runnable {
             return false;
         }
         if (fr.caller.isNone()) {
-            if (tags.evaluate(fr.suite.tagSelector, fr.suite.env)) {
+            if (tags.evaluate(fr.suite.compiledTagSelector, fr.suite.env)) {
                 fr.logger.trace("matched scenario at line: {} with tags effective: {}", scenario.getLine(), tags.getTags());
                 return true;
             }
@@ -365,9 +406,11 @@ public class ScenarioRuntime implements Runnable {
         if (!dryRun) {
             if (caller.isNone() && !caller.isKarateConfigDisabled()) {
                 // evaluate config js, variables above will apply !
-                evalConfigJs(featureRuntime.suite.karateBase, "karate-base.js");
-                evalConfigJs(featureRuntime.suite.karateConfig, "karate-config.js");
-                evalConfigJs(featureRuntime.suite.karateConfigEnv, "karate-config-" + featureRuntime.suite.env + ".js");
+                if (featureRuntime.suite.karateConfigCache == null) {
+                    evalConfigJs();
+                } else {
+                    evalConfigJsCached();
+                }
             }
             if (this.isDynamicBackground()) {
                 featureRuntime.suite.hooks.forEach(h -> h.beforeBackground(this));
@@ -455,6 +498,10 @@ public class ScenarioRuntime implements Runnable {
             }
         } else if (dryRun) {
             stepResult = Result.passed(0);
+        } else if (perfMode && !featureRuntime.perfHook.getPerfStepKeywords().isEmpty()) {
+            long startTime = System.currentTimeMillis();
+            stepResult = StepRuntime.execute(step, actions);
+            capturePerfStep(step, stepResult, startTime);
         } else {
             stepResult = StepRuntime.execute(step, actions);
         }
@@ -508,6 +555,23 @@ public class ScenarioRuntime implements Runnable {
         }
     }
 
+    // a failure is flagged when the scenario ends, see ScenarioEngine.logLastPerfEvent()
+    private void capturePerfStep(Step step, Result stepResult, long startTime) {
+        StepRuntime.MethodMatch match = stepResult.getMatchingMethod();
+        if (match == null) { // no such step
+            return;
+        }
+        String keyword = match.getKeyword();
+        if (featureRuntime.perfHook.getPerfStepKeywords().contains(keyword)) {
+            if (stepResult.isFailed()) {
+                // the pending (http) event is KO as it would be without step events, not just this step
+                engine.logLastPerfEvent(stepResult.getErrorMessage());
+            }
+            String name = keyword + " " + featureRuntime.getPerfName() + ":" + step.getLine();
+            engine.capturePerfEvent(new PerfEvent(startTime, System.currentTimeMillis(), name, 200));
+        }
+    }
+
     public void afterRun() {
         try {
             result.setEndTime(System.currentTimeMillis());
@@ -551,11 +615,18 @@ public class ScenarioRuntime implements Runnable {
         return scenario.toString();
     }
 
+    private static boolean isWrappedByBackTick(String name) {
+        return name != null && name.length() > 1 && '`' == name.charAt(0) && '`' == name.charAt((name.length() - 1));
+    }
+
+    private static boolean isNameEvaluated(String name) {
+        return name != null && (isWrappedByBackTick(name) || ScenarioEngine.hasJavaScriptPlacehoder(name));
+    }
+
     public void evaluateScenarioName() {
         String scenarioName = this.scenario.getName();
-        boolean wrappedByBackTick = scenarioName != null && scenarioName.length() > 1 && '`' == scenarioName.charAt(0) && '`' == scenarioName.charAt((scenarioName.length() - 1));
-        boolean hasJavascriptPlaceholder = ScenarioEngine.hasJavaScriptPlacehoder(scenarioName);
-        if (wrappedByBackTick || hasJavascriptPlaceholder) {
+        boolean wrappedByBackTick = isWrappedByBackTick(scenarioName);
+        if (isNameEvaluated(scenarioName)) {
             String eval = scenarioName;
             if (!wrappedByBackTick) {
                 eval = '`' + eval + '`';
@@ -49,6 +49,9 @@ public class Step {
     private String docString;
     private Table table;
 
+    // resolved on first execution, a race between threads sharing the step only means resolving it twice
+    private StepRuntime.MethodMatch methodMatch;
+
     public static final List<String> PREFIXES = Arrays.asList("*", "Given", "When", "Then", "And", "But");
 
     public void parseAndUpdateFrom(String text) {
@@ -66,6 +69,7 @@ public class Step {
         }
         this.prefix = tempStep.prefix;
         this.text = tempStep.text;
+        this.methodMatch = null;
         this.docString = tempStep.docString;
         this.table = tempStep.table;
     }
@@ -197,6 +201,15 @@ public class Step {
 
     public void setText(String text) {
         this.text = text;
+        methodMatch = null;
+    }
+
+    StepRuntime.MethodMatch getMethodMatch() {
+        return methodMatch;
+    }
+
+    void setMethodMatch(StepRuntime.MethodMatch methodMatch) {
+        this.methodMatch = methodMatch;
     }
 
     public String getDocString() {
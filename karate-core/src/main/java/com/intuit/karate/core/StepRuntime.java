@@ -31,6 +31,8 @@ import com.intuit.karate.ScenarioActions;
 import com.intuit.karate.StringUtils;
 import cucumber.api.java.en.When;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
@@ -44,7 +46,6 @@ import java.util.Objects;
 import java.util.StringJoiner;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
-import java.util.stream.Collectors;
 
 /**
  * @author pthomas3
@@ -55,18 +56,24 @@ public class StepRuntime {
         // only static methods
     }
 
+    private static final Pattern LITERAL_KEYWORD = Pattern.compile("[a-zA-Z]+\\$?");
+
     static class MethodPattern {
 
         final String regex;
         final Method method;
         final Pattern pattern;
         final String keyword;
+        final MethodHandle handle;
 
         MethodPattern(Method method, String regex) {
             this.regex = regex;
             this.method = method;
             try {
                 pattern = Pattern.compile(regex);
+                // spread the args so that invocation is (actions, Object[]) like Method.invoke() but without reflection
+                MethodHandle temp = MethodHandles.publicLookup().unreflect(method);
+                handle = temp.asType(temp.type().generic()).asSpreader(Object[].class, method.getParameterCount());
             } catch (Exception e) {
                 throw new RuntimeException(e);
             }
@@ -75,6 +82,14 @@ public class StepRuntime {
             keyword = regex.substring(1).split(" ")[0];
         }
 
+        // null if the pattern does not start with a plain word, e.g. the "generic" assign pattern
+        String getLiteralKeyword() {
+            if (!LITERAL_KEYWORD.matcher(keyword).matches()) {
+                return null;
+            }
+            return keyword.endsWith("$") ? keyword.substring(0, keyword.length() - 1) : keyword;
+        }
+
         List<String> match(String text) {
             Matcher matcher = pattern.matcher(text);
             if (matcher.lookingAt()) {
@@ -102,10 +117,37 @@ public class StepRuntime {
 
         final Method method;
         final List<String> args;
+        final MethodHandle handle; // null when re-created from karate-json
 
         MethodMatch(Method method, List<String> args) {
+            this(method, args, null);
+        }
+
+        MethodMatch(Method method, List<String> args, MethodHandle handle) {
             this.method = method;
             this.args = args;
+            this.handle = handle;
+        }
+
+        // e.g. "match", "def" or "eval", the doc-string variants have the same keyword
+        String getKeyword() {
+            String name = method.getName();
+            if (name.endsWith("Docstring")) {
+                name = name.substring(0, name.length() - 9);
+            }
+            return "assertTrue".equals(name) ? "assert" : name;
+        }
+
+        void invoke(Actions actions, Object[] args) throws Throwable {
+            if (handle == null) {
+                try {
+                    method.invoke(actions, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getTargetException();
+                }
+            } else {
+                Object ignored = handle.invokeExact((Object) actions, args);
+            }
         }
 
         Object[] convertArgs(Object last) {
@@ -185,7 +227,11 @@ public class StepRuntime {
 
     }
 
-    private static final Collection<MethodPattern> PATTERNS;
+    static final Collection<MethodPattern> PATTERNS;
+    // first pass: patterns indexed by the first word of the step text
+    private static final Map<String, List<MethodPattern>> PATTERNS_BY_KEYWORD;
+    // patterns that do not begin with a plain word, always tried
+    private static final List<MethodPattern> PATTERNS_GENERIC;
     private static final Map<String, Collection<Method>> KEYWORDS_METHODS;
     public static final Collection<Method> METHOD_MATCH;
 
@@ -219,20 +265,59 @@ public class StepRuntime {
             keywordMethods.add(mp.method);
         }
         PATTERNS = temp.values();
+        PATTERNS_BY_KEYWORD = new HashMap();
+        PATTERNS_GENERIC = new ArrayList();
+        for (MethodPattern mp : PATTERNS) {
+            String literal = mp.getLiteralKeyword();
+            if (literal == null) {
+                PATTERNS_GENERIC.add(mp);
+            } else {
+                PATTERNS_BY_KEYWORD.computeIfAbsent(literal, k -> new ArrayList()).add(mp);
+            }
+        }
         METHOD_MATCH = findMethodsByKeyword("match");
     }
 
-    private static List<MethodMatch> findMethodsMatching(String text) {
-        List<MethodMatch> matches = new ArrayList(1);
-        for (MethodPattern pattern : PATTERNS) {
+    private static String firstWord(String text) {
+        int pos = text.indexOf(' ');
+        return pos == -1 ? text : text.substring(0, pos);
+    }
+
+    private static void addMatches(List<MethodPattern> patterns, String text, List<MethodMatch> matches) {
+        for (MethodPattern pattern : patterns) {
             List<String> args = pattern.match(text);
             if (args != null) {
-                matches.add(new MethodMatch(pattern.method, args));
+                matches.add(new MethodMatch(pattern.method, args, pattern.handle));
             }
         }
+    }
+
+    static List<MethodMatch> findMethodsMatching(String text) {
+        List<MethodMatch> matches = new ArrayList(1);
+        // a pattern like "^def (.+)" can only match text whose first word is "def"
+        List<MethodPattern> keywordPatterns = PATTERNS_BY_KEYWORD.get(firstWord(text));
+        if (keywordPatterns != null) {
+            addMatches(keywordPatterns, text, matches);
+        }
+        addMatches(PATTERNS_GENERIC, text, matches);
         return matches;
     }
 
+    static MethodMatch resolve(Step step, String text) {
+        MethodMatch match = step.getMethodMatch();
+        if (match != null) {
+            return match;
+        }
+        List<MethodMatch> matches = findMethodsMatching(text);
+        if (matches.size() != 1) {
+            throw new KarateException(matches.isEmpty() ? "no step-definition method match found for: " + text
+                    : "more than one step-definition method matched: " + text + " - " + matches);
+        }
+        match = matches.get(0);
+        step.setMethodMatch(match);
+        return match;
+    }
+
     public static Collection<Method> findMethodsByKeywords(List<String> text) {
         Collection<Method> methods = new HashSet();
         text.forEach(m -> {
@@ -251,15 +336,12 @@ public class StepRuntime {
 
     public static Result execute(Step step, Actions actions) {
         String text = step.getText();
-        List<MethodMatch> matches = findMethodsMatching(text);
-        if (matches.isEmpty()) {
-            KarateException e = new KarateException("no step-definition method match found for: " + text);
-            return Result.failed(0, e, step);
-        } else if (matches.size() > 1) {
-            KarateException e = new KarateException("more than one step-definition method matched: " + text + " - " + matches);
+        MethodMatch match;
+        try {
+            match = resolve(step, text);
+        } catch (KarateException e) {
             return Result.failed(0, e, step);
         }
-        MethodMatch match = matches.get(0);
         Object last;
         if (step.getDocString() != null) {
             last = step.getDocString();
@@ -277,7 +359,7 @@ public class StepRuntime {
         }
         long startTime = System.nanoTime();
         try {
-            match.method.invoke(actions, args);
+            match.invoke(actions, args);
             if (actions.isAborted()) {
                 return Result.aborted(getElapsedTimeNanos(startTime), match);
             } else if (actions.isFailed()) {
@@ -285,10 +367,8 @@ public class StepRuntime {
             } else {
                 return Result.passed(getElapsedTimeNanos(startTime), match);
             }
-        } catch (InvocationTargetException e) {
-            return Result.failed(getElapsedTimeNanos(startTime), e.getTargetException(), step, match);
-        } catch (Exception e) {
-            return Result.failed(getElapsedTimeNanos(startTime), e, step, match);
+        } catch (Throwable t) {
+            return Result.failed(getElapsedTimeNanos(startTime), t, step, match);
         }
     }
 
@@ -0,0 +1,209 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2021 Intuit Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.intuit.karate.core;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * updated as each feature completes, keeps only what the suite-level reports
+ * need (counts, durations, errors, timeline and tags) - so that the end of a
+ * run does not have to re-read and re-parse every feature result from disk
+ *
+ * @author pthomas3
+ */
+public class SummaryResults {
+
+    static class Entry {
+
+        final boolean empty;
+        final boolean failed;
+        final int passedCount;
+        final int failedCount;
+        final double durationMillis;
+        final double longestScenarioMillis;
+        final List<String> errors;
+        final Map<String, Object> featureSummary;
+        final List<TimelineResults.Item> timeline;
+        final TagResults.FeatureTags tags;
+
+        Entry(FeatureResult fr) {
+            empty = fr.isEmpty();
+            failed = fr.isFailed();
+            passedCount = fr.getPassedCount();
+            failedCount = fr.getFailedCount();
+            durationMillis = fr.getDurationMillis();
+            double longest = 0;
+            for (ScenarioResult sr : fr.getScenarioResults()) {
+                longest = Math.max(longest, sr.getDurationMillis());
+            }
+            longestScenarioMillis = longest;
+            errors = fr.getErrors();
+            featureSummary = fr.toSummaryJson();
+            timeline = TimelineResults.toItems(fr);
+            tags = new TagResults.FeatureTags(fr, featureSummary);
+        }
+
+    }
+
+    // keyed by feature, so that a re-run (retry) replaces the earlier result
+    private final Map<String, Entry> entries = new LinkedHashMap();
+
+    public void addFeatureResult(FeatureResult fr) {
+        Entry entry = new Entry(withoutEmptyScenarios(fr)); // outside the lock
+        synchronized (entries) {
+            entries.put(fr.getFeature().getKarateJsonFileName(), entry);
+        }
+    }
+
+    // same as what FeatureResult.fromKarateJson() would have re-loaded
+    private static FeatureResult withoutEmptyScenarios(FeatureResult fr) {
+        boolean found = false;
+        for (ScenarioResult sr : fr.getScenarioResults()) {
+            if (sr.getStepResults().isEmpty()) {
+                found = true;
+                break;
+            }
+        }
+        if (!found) {
+            return fr;
+        }
+        FeatureResult temp = new FeatureResult(fr.getFeature());
+        for (ScenarioResult sr : fr.getScenarioResults()) {
+            if (!sr.getStepResults().isEmpty()) {
+                temp.addResult(sr);
+            }
+        }
+        return temp;
+    }
+
+    private List<Entry> entries() {
+        synchronized (entries) {
+            return new ArrayList(entries.values());
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public int getFeaturesPassed() {
+        int count = 0;
+        for (Entry e : entries()) {
+            if (!e.empty && !e.failed) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public int getFeaturesFailed() {
+        int count = 0;
+        for (Entry e : entries()) {
+            if (!e.empty && e.failed) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public int getScenariosPassed() {
+        int count = 0;
+        for (Entry e : entries()) {
+            count += e.passedCount;
+        }
+        return count;
+    }
+
+    public int getScenariosFailed() {
+        int count = 0;
+        for (Entry e : entries()) {
+            count += e.failedCount;
+        }
+        return count;
+    }
+
+    public double getTimeTakenMillis() {
+        long time = 0;
+        for (Entry e : entries()) {
+            if (!e.empty) {
+                time += Math.round(e.durationMillis);
+            }
+        }
+        return time;
+    }
+
+    public double getLongestScenarioMillis() {
+        double longest = 0;
+        for (Entry e : entries()) {
+            if (!e.empty) {
+                longest = Math.max(longest, e.longestScenarioMillis);
+            }
+        }
+        return longest;
+    }
+
+    public List<String> getErrors() {
+        List<String> list = new ArrayList();
+        for (Entry e : entries()) {
+            list.addAll(e.errors);
+        }
+        return list;
+    }
+
+    public List<Map<String, Object>> getFeatureSummary() {
+        List<Map<String, Object>> list = new ArrayList();
+        for (Entry e : entries()) {
+            if (!e.empty) {
+                list.add(e.featureSummary);
+            }
+        }
+        return list;
+    }
+
+    public TimelineResults getTimelineResults() {
+        TimelineResults timeline = new TimelineResults();
+        for (Entry e : entries()) {
+            if (!e.empty) {
+                timeline.addItems(e.timeline);
+            }
+        }
+        return timeline;
+    }
+
+    public TagResults getTagResults() {
+        TagResults tags = new TagResults();
+        for (Entry e : entries()) {
+            if (!e.empty) {
+                tags.addFeatureTags(e.tags);
+            }
+        }
+        return tags;
+    }
+
+}
@@ -41,25 +41,40 @@ public class TagResults {
     private final Set<String> failedTagKeys = new TreeSet();
     private final List<Map<String, Object>> featureTagsList = new ArrayList();
 
+    // compact, so that a whole suite worth can be held in memory
+    static class FeatureTags {
+
+        final Map<String, Object> featureSummary;
+        final Set<String> tagKeys = new TreeSet();
+        final Set<String> failedTagKeys = new TreeSet();
+
+        FeatureTags(FeatureResult fr, Map<String, Object> featureSummary) {
+            this.featureSummary = featureSummary;
+            for (ScenarioResult sr : fr.getScenarioResults()) {
+                Tags tags = sr.getScenario().getTagsEffective();
+                tagKeys.addAll(tags.getTagKeys());
+                if (sr.isFailed()) {
+                    failedTagKeys.addAll(tags.getTagKeys());
+                }
+            }
+        }
+
+    }
+
     public void addFeatureResult(FeatureResult fr) {
+        addFeatureTags(new FeatureTags(fr, fr.toSummaryJson()));
+    }
+
+    void addFeatureTags(FeatureTags ft) {
         Map<String, Object> featureTags = new HashMap();
         featureTagsList.add(featureTags);
-        featureTags.put("featureSummary", fr.toSummaryJson());
-        Set<String> tagKeysSet = new TreeSet();
-        featureTags.put("tagKeys", tagKeysSet);
-        Set<String> failedTagKeysSet = new TreeSet();
-        featureTags.put("failedTagKeys", failedTagKeysSet);        
-        for (ScenarioResult sr : fr.getScenarioResults()) {
-            Tags tags = sr.getScenario().getTagsEffective();
-            allTagKeys.addAll(tags.getTagKeys());
-            tagKeysSet.addAll(tags.getTagKeys());
-            if (sr.isFailed()) {
-                failedTagKeys.addAll(tags.getTagKeys());
-                failedTagKeysSet.addAll(tags.getTagKeys());
-            }
-        }
+        featureTags.put("featureSummary", ft.featureSummary);
+        featureTags.put("tagKeys", ft.tagKeys);
+        featureTags.put("failedTagKeys", ft.failedTagKeys);
+        allTagKeys.addAll(ft.tagKeys);
+        failedTagKeys.addAll(ft.failedTagKeys);
     }
-    
+
     public Map<String, Object> toKarateJson() {
         Map<String, Object> map = new HashMap();
         map.put("tagKeysPassed", allTagKeys.size() - failedTagKeys.size());
@@ -0,0 +1,243 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2021 Intuit Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.intuit.karate.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * a tag selector such as "anyOf('@foo','@bar') && not('@baz')" parsed into a
+ * tree of java predicates, supports anyOf(), allOf(), not(), valuesFor() with
+ * isPresent, isAnyOf(), isAllOf() and isOnly(), combined with !, && , || and
+ * parentheses, anything else (e.g. isEach() with a js function) is evaluated
+ * as js the way it always was
+ *
+ * @author pthomas3
+ */
+public class TagSelector implements Predicate<Tags> {
+
+    public final String source;
+    private final Predicate<Tags> compiled; // null if js is needed
+
+    private TagSelector(String source, Predicate<Tags> compiled) {
+        this.source = source;
+        this.compiled = compiled;
+    }
+
+    public static TagSelector compile(String source) {
+        if (source == null) {
+            return null;
+        }
+        Predicate<Tags> compiled;
+        try {
+            Parser parser = new Parser(source);
+            compiled = parser.parseOr();
+            parser.skipSpaces();
+            if (parser.pos != source.length()) {
+                compiled = null;
+            }
+        } catch (IllegalArgumentException e) {
+            compiled = null;
+        }
+        return new TagSelector(source, compiled);
+    }
+
+    public boolean isCompiled() {
+        return compiled != null;
+    }
+
+    @Override
+    public boolean test(Tags tags) {
+        return compiled == null ? tags.evaluateJs(source) : compiled.test(tags);
+    }
+
+    @Override
+    public String toString() {
+        return source;
+    }
+
+    private static class Parser {
+
+        final String text;
+        int pos;
+
+        Parser(String text) {
+            this.text = text;
+        }
+
+        IllegalArgumentException unsupported() {
+            return new IllegalArgumentException("unsupported tag selector at position " + pos + ": " + text);
+        }
+
+        void skipSpaces() {
+            while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) {
+                pos++;
+            }
+        }
+
+        boolean consume(String token) {
+            skipSpaces();
+            if (text.startsWith(token, pos)) {
+                pos += token.length();
+                return true;
+            }
+            return false;
+        }
+
+        void expect(String token) {
+            if (!consume(token)) {
+                throw unsupported();
+            }
+        }
+
+        Predicate<Tags> parseOr() {
+            Predicate<Tags> left = parseAnd();
+            while (consume("||")) {
+                left = left.or(parseAnd());
+            }
+            return left;
+        }
+
+        Predicate<Tags> parseAnd() {
+            Predicate<Tags> left = parseUnary();
+            while (consume("&&")) {
+                left = left.and(parseUnary());
+            }
+            return left;
+        }
+
+        Predicate<Tags> parseUnary() {
+            if (consume("!")) {
+                return parseUnary().negate();
+            }
+            if (consume("(")) {
+                Predicate<Tags> inner = parseOr();
+                expect(")");
+                return inner;
+            }
+            return parseCall();
+        }
+
+        String parseName() {
+            skipSpaces();
+            int start = pos;
+            while (pos < text.length() && Character.isJavaIdentifierPart(text.charAt(pos))) {
+                pos++;
+            }
+            if (start == pos) {
+                throw unsupported();
+            }
+            return text.substring(start, pos);
+        }
+
+        Predicate<Tags> parseCall() {
+            String name = parseName();
+            expect("(");
+            Object[] args = parseArgs();
+            switch (name) {
+                case "anyOf":
+                    return tags -> tags.anyOf(args);
+                case "allOf":
+                    return tags -> tags.allOf(args);
+                case "not":
+                    return tags -> tags.not(args);
+                case "valuesFor":
+                    if (args.length != 1) {
+                        throw unsupported();
+                    }
+                    return parseValues(args[0].toString());
+                default:
+                    throw unsupported();
+            }
+        }
+
+        Predicate<Tags> parseValues(String tagName) {
+            expect(".");
+            String name = parseName();
+            if (name.equals("isPresent")) {
+                if (consume("(")) {
+                    expect(")");
+                }
+                return tags -> tags.valuesFor(tagName).isPresent;
+            }
+            expect("(");
+            Object[] args = parseArgs();
+            switch (name) {
+                case "isAnyOf":
+                    return tags -> tags.valuesFor(tagName).isAnyOf(args);
+                case "isAllOf":
+                    return tags -> tags.valuesFor(tagName).isAllOf(args);
+                case "isOnly":
+                    return tags -> tags.valuesFor(tagName).isOnly(args);
+                default: // e.g. isEach() which needs a js function
+                    throw unsupported();
+            }
+        }
+
+        // after the opening paren, up to and including the closing one
+        Object[] parseArgs() {
+            List<String> args = new ArrayList();
+            if (consume(")")) {
+                return args.toArray();
+            }
+            do {
+                args.add(parseLiteral());
+            } while (consume(","));
+            expect(")");
+            return args.toArray();
+        }
+
+        String parseLiteral() {
+            skipSpaces();
+            if (pos >= text.length()) {
+                throw unsupported();
+            }
+            char c = text.charAt(pos);
+            if (c == '\'' || c == '"') {
+                int end = text.indexOf(c, pos + 1);
+                if (end == -1) {
+                    throw unsupported();
+                }
+                String value = text.substring(pos + 1, end);
+                if (value.indexOf('\\') != -1) { // leave escapes to js
+                    throw unsupported();
+                }
+                pos = end + 1;
+                return value;
+            }
+            int start = pos;
+            while (pos < text.length() && Character.isDigit(text.charAt(pos))) {
+                pos++;
+            }
+            // only plain integers, so that the string form is the same as what js would pass in
+            if (start == pos || (pos - start > 1 && text.charAt(start) == '0') || pos - start > 9) {
+                throw unsupported();
+            }
+            return text.substring(start, pos);
+        }
+
+    }
+
+}
@@ -132,6 +132,10 @@ public class Tags implements Iterable<Tag> {
     }
 
     public boolean evaluate(String tagSelector, String karateEnv) {
+        return evaluate(TagSelector.compile(tagSelector), karateEnv);
+    }
+
+    public boolean evaluate(TagSelector tagSelector, String karateEnv) {
         if (tags.contains(Tag.IGNORE)) {
             return false;
         }
@@ -150,6 +154,10 @@ public class Tags implements Iterable<Tag> {
         if (tagSelector == null) {
             return true;
         }
+        return tagSelector.test(this);
+    }
+
+    protected boolean evaluateJs(String tagSelector) {
         JsEngine je = JsEngine.global();
         je.put("anyOf", (Methods.FunVar) this::anyOf);
         je.put("allOf", (Methods.FunVar) this::allOf);
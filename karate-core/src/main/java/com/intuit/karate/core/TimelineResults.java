@@ -43,41 +43,73 @@ public class TimelineResults {
 
     private final Map<String, Integer> groupsMap = new LinkedHashMap();
     private final List<Map> items = new ArrayList();
-    private final DateFormat dateFormat = new SimpleDateFormat("HH:mm:ss.SSS");
     private int id;
 
-    public void addFeatureResult(FeatureResult fr) {
+    // compact, so that a whole suite worth can be held in memory
+    static class Item {
+
+        final String threadName;
+        final String content;
+        final String title;
+        final long start;
+        final long end;
+        final boolean failed;
+
+        Item(String threadName, String content, String title, long start, long end, boolean failed) {
+            this.threadName = threadName;
+            this.content = content;
+            this.title = title;
+            this.start = start;
+            this.end = end;
+            this.failed = failed;
+        }
+
+    }
+
+    static List<Item> toItems(FeatureResult fr) {
+        List<Item> list = new ArrayList(fr.getScenarioResults().size());
+        DateFormat dateFormat = new SimpleDateFormat("HH:mm:ss.SSS");
         fr.getScenarioResults().stream().forEach(sr -> {
-            String threadName = sr.getExecutorName();
-            Integer groupId = groupsMap.get(threadName);
-            if (groupId == null) {
-                groupId = groupsMap.size() + 1;
-                groupsMap.put(threadName, groupId);
-            }
-            Map<String, Object> item = new LinkedHashMap(10);
-            items.add(item);
-            item.put("id", ++id);
-            item.put("group", groupId);
             Scenario s = sr.getScenario();
             String featureName = s.getFeature().getResource().getFileNameWithoutExtension();
             String content = featureName + s.getRefId();
-            item.put("content", content);
             long startTime = sr.getStartTime();
-            item.put("start", startTime);
             long endTime = sr.getEndTime() - 1; // avoid overlap when rendering
-            item.put("end", endTime);
             String startTimeString = dateFormat.format(new Date(startTime));
             String endTimeString = dateFormat.format(new Date(endTime));
-            content = content + " " + startTimeString + "-" + endTimeString;
+            String title = content + " " + startTimeString + "-" + endTimeString;
             String scenarioTitle = StringUtils.trimToEmpty(s.getName());
             if (!scenarioTitle.isEmpty()) {
-                content = content + " " + scenarioTitle;
+                title = title + " " + scenarioTitle;
             }
-            item.put("title", content);
-            if (sr.isFailed()) {
+            list.add(new Item(sr.getExecutorName(), content, title, startTime, endTime, sr.isFailed()));
+        });
+        return list;
+    }
+
+    public void addFeatureResult(FeatureResult fr) {
+        addItems(toItems(fr));
+    }
+
+    void addItems(List<Item> list) {
+        for (Item i : list) {
+            Integer groupId = groupsMap.get(i.threadName);
+            if (groupId == null) {
+                groupId = groupsMap.size() + 1;
+                groupsMap.put(i.threadName, groupId);
+            }
+            Map<String, Object> item = new LinkedHashMap(10);
+            items.add(item);
+            item.put("id", ++id);
+            item.put("group", groupId);
+            item.put("content", i.content);
+            item.put("start", i.start);
+            item.put("end", i.end);
+            item.put("title", i.title);
+            if (i.failed) {
                 item.put("className", "failed");
             }
-        });
+        }
     }
 
     public Map<String, Object> toKarateJson() {
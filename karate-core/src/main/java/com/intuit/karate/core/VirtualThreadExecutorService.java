@@ -0,0 +1,137 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2020 Intuit Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.intuit.karate.core;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * one virtual thread per task (java 21+), with a separate limit on how many
+ * tasks can actually run at the same time, looked up via reflection so that
+ * this compiles and runs on java 8 - where isSupported() returns false
+ *
+ * @author pthomas3
+ */
+public class VirtualThreadExecutorService extends AbstractExecutorService {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadExecutorService.class);
+
+    private static final Method NEW_EXECUTOR = lookup();
+
+    private static Method lookup() {
+        try {
+            Method method = java.util.concurrent.Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            // preview releases throw if not enabled
+            ((ExecutorService) method.invoke(null)).shutdown();
+            return method;
+        } catch (Throwable t) {
+            logger.trace("virtual threads not available: {}", t.getMessage());
+            return null;
+        }
+    }
+
+    public static boolean isSupported() {
+        return NEW_EXECUTOR != null;
+    }
+
+    private final ExecutorService delegate;
+    private final Semaphore permits;
+
+    public VirtualThreadExecutorService(int maxConcurrent) {
+        if (NEW_EXECUTOR == null) {
+            throw new UnsupportedOperationException("virtual threads need java 21 or later");
+        }
+        try {
+            delegate = (ExecutorService) NEW_EXECUTOR.invoke(null);
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+        // fair, so that no waiting task is starved, but tasks can still start out of the
+        // order submitted since each one acquires on its own (concurrently started) thread
+        permits = new Semaphore(maxConcurrent, true);
+    }
+
+    /**
+     * @return estimate of the number of tasks waiting for a permit
+     */
+    public int getQueueLength() {
+        return permits.getQueueLength();
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        delegate.execute(() -> {
+            try {
+                permits.acquire(); // parks the virtual thread, not a carrier
+            } catch (InterruptedException e) {
+                // dropping the task would leave whoever waits on it hanging, so run it
+                // anyway (over the limit) and keep the interrupt for whatever follows
+                logger.warn("interrupted waiting for a permit, running task anyway");
+                try {
+                    command.run();
+                } finally {
+                    Thread.currentThread().interrupt();
+                }
+                return;
+            }
+            try {
+                command.run();
+            } finally {
+                permits.release();
+            }
+        });
+    }
+
+    @Override
+    public void shutdown() {
+        delegate.shutdown();
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        return delegate.shutdownNow();
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return delegate.isShutdown();
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return delegate.isTerminated();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return delegate.awaitTermination(timeout, unit);
+    }
+
+}
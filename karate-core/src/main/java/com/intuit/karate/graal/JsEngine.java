@@ -28,6 +28,7 @@ import com.intuit.karate.KarateException;
 import com.intuit.karate.StringUtils;
 import java.io.File;
 import java.io.InputStream;
+import java.lang.reflect.Method;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -59,15 +60,53 @@ public class JsEngine {
     private static final ThreadLocal<JsEngine> GLOBAL_JS_ENGINE = new ThreadLocal<JsEngine>() {
         @Override
         protected JsEngine initialValue() {
-            return new JsEngine(createContext(null));
+            return new JsEngine(createContext(isVirtualThread() ? sharedEngine() : null));
         }
     };
 
+    // a virtual thread lives for only one task, so instead of a new engine per
+    // thread, contexts created on virtual threads all share this one
+    private static Engine sharedEngine;
+
+    private static synchronized Engine sharedEngine() {
+        if (sharedEngine == null) {
+            sharedEngine = createEngine();
+        }
+        return sharedEngine;
+    }
+
+    private static final Method IS_VIRTUAL;
+
+    static {
+        Method method;
+        try {
+            method = Thread.class.getMethod("isVirtual"); // java 21+
+        } catch (Exception e) {
+            method = null;
+        }
+        IS_VIRTUAL = method;
+    }
+
+    public static boolean isVirtualThread() {
+        if (IS_VIRTUAL == null) {
+            return false;
+        }
+        try {
+            return (Boolean) IS_VIRTUAL.invoke(Thread.currentThread());
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private static Engine createEngine() {
+        return Engine.newBuilder()
+                .option(ENGINE_WARN_INTERPRETER_ONLY, FALSE)
+                .build();
+    }
+
     private static Context createContext(Engine engine) {
         if (engine == null) {
-            engine = Engine.newBuilder()
-                    .option(ENGINE_WARN_INTERPRETER_ONLY, FALSE)                    
-                    .build();
+            engine = createEngine();
         }
         return Context.newBuilder(JS)
                 .allowExperimentalOptions(true)
@@ -95,7 +134,8 @@ public class JsEngine {
     }
 
     public static JsEngine local() {
-        Engine engine = GLOBAL_JS_ENGINE.get().context.getEngine();
+        // don't create a global context on a virtual thread just to get at the engine
+        Engine engine = isVirtualThread() ? sharedEngine() : GLOBAL_JS_ENGINE.get().context.getEngine();
         return new JsEngine(createContext(engine));
     }
 
@@ -104,11 +144,59 @@ public class JsEngine {
     public final Context context;
     public final Value bindings;
 
+    // functions re-created from source, only valid as long as this context is not reset
+    // keyed by the source text alone, so two functions with the same text share one value
+    // (and any property set on it), which is fine since such a function has no closure
+    private final Map<String, Value> attached = new HashMap();
+    private static final int ATTACHED_MAX_SIZE = 256;
+
+    // own property names of the globals and their prototypes, when the context was fresh
+    private Value intrinsicsFunction;
+    private String intrinsics;
+
+    // captures what it needs up-front, so that user code cannot change how it works
+    private static final String INTRINSICS_SOURCE = "(function(){ var names = Object.getOwnPropertyNames; var g = globalThis;"
+            + " var keys = function(o){ var s = ''; try { var k = names(o); for (var i = 0; i < k.length; i++) s += k[i] + ','; } catch (e) { } return s };"
+            + " return function(){ var s = keys(g); var k = names(g); for (var i = 0; i < k.length; i++) {"
+            + " var v; try { v = g[k[i]] } catch (e) { continue };"
+            + " if (v === null || (typeof v !== 'object' && typeof v !== 'function')) continue;"
+            + " s += '|' + k[i] + ':' + keys(v); var p; try { p = v.prototype } catch (e) { continue };"
+            + " if (p !== null && typeof p === 'object') s += '|' + k[i] + '.prototype:' + keys(p) }"
+            + " return s } })()";
+
     private JsEngine(Context context) {
         this.context = context;
         bindings = context.getBindings(JS);
     }
 
+    // for e.g. Array.prototype.foo = 1 survives removing the global bindings
+    // so a pooled context has to remember what the built-ins looked like
+    protected void snapshotIntrinsics() {
+        intrinsicsFunction = context.eval(JS, INTRINSICS_SOURCE);
+        intrinsics = intrinsicsFunction.execute().asString();
+    }
+
+    // returns false if any global could not be removed, or a built-in was changed
+    // and the context cannot be re-used
+    protected boolean reset() {
+        attached.clear();
+        try {
+            for (String key : bindings.getMemberKeys()) {
+                if (!bindings.removeMember(key)) {
+                    return false;
+                }
+            }
+            if (intrinsics != null && !intrinsics.equals(intrinsicsFunction.execute().asString())) {
+                logger.trace("js context cannot be reset, a built-in object was modified");
+                return false;
+            }
+            return true;
+        } catch (Exception e) {
+            logger.trace("js context cannot be reset: {}", e.getMessage());
+            return false;
+        }
+    }
+
     public JsEngine copy() {
         JsEngine temp = local();
         for (String key : bindings.getMemberKeys()) {
@@ -159,8 +247,16 @@ public class JsEngine {
     }
 
     public Value attachSource(CharSequence source) {
-        Value value = evalForValue("(" + source + ")");
-        return attach(value);
+        String key = source.toString();
+        Value value = attached.get(key);
+        if (value == null) {
+            value = attach(evalForValue("(" + source + ")"));
+            if (attached.size() >= ATTACHED_MAX_SIZE) { // crude, we only expect a few hundred distinct functions
+                attached.clear();
+            }
+            attached.put(key, value);
+        }
+        return value;
     }
 
     public Value attach(Value function) {
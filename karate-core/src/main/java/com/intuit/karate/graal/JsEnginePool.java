@@ -0,0 +1,116 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2021 Intuit Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.intuit.karate.graal;
+
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * bounded pool of idle js contexts, a context is only handed back to the pool
+ * if all its global bindings could be removed, for e.g. a top-level "var" or
+ * "let" in user code makes the context "dirty" and it is simply dropped, the
+ * same goes for a context where a built-in such as Array.prototype or JSON was
+ * given a new property or had one removed (replacing the value of an existing
+ * property of a built-in is not detected and is not supported)
+ *
+ * @author pthomas3
+ */
+public class JsEnginePool {
+
+    private final int maxIdle;
+    private final ConcurrentLinkedDeque<JsEngine> idle = new ConcurrentLinkedDeque();
+    private final AtomicInteger idleCount = new AtomicInteger();
+    private final AtomicLong created = new AtomicLong();
+    private final AtomicLong reused = new AtomicLong();
+    private final AtomicLong discarded = new AtomicLong();
+
+    public JsEnginePool(int maxIdle) {
+        this.maxIdle = maxIdle;
+    }
+
+    public JsEngine acquire() {
+        JsEngine je = idle.pollFirst();
+        if (je == null) {
+            created.incrementAndGet();
+            je = JsEngine.local();
+            je.snapshotIntrinsics();
+            return je;
+        }
+        idleCount.decrementAndGet();
+        reused.incrementAndGet();
+        return je;
+    }
+
+    public void release(JsEngine je) {
+        if (je == null) {
+            return;
+        }
+        if (!reserveIdle()) {
+            discarded.incrementAndGet();
+            return;
+        }
+        if (!je.reset()) {
+            idleCount.decrementAndGet();
+            discarded.incrementAndGet();
+            return;
+        }
+        idle.offerFirst(je);
+    }
+
+    // check-then-increment has to be atomic, else the pool can grow past the bound
+    private boolean reserveIdle() {
+        while (true) {
+            int count = idleCount.get();
+            if (count >= maxIdle) {
+                return false;
+            }
+            if (idleCount.compareAndSet(count, count + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public int getMaxIdle() {
+        return maxIdle;
+    }
+
+    public long getCreated() {
+        return created.get();
+    }
+
+    public long getReused() {
+        return reused.get();
+    }
+
+    public long getDiscarded() {
+        return discarded.get();
+    }
+
+    @Override
+    public String toString() {
+        return "created: " + created + ", reused: " + reused + ", discarded: " + discarded + ", idle: " + idleCount;
+    }
+
+}
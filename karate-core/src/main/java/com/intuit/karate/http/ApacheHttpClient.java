@@ -77,12 +77,15 @@ import org.apache.http.impl.client.BasicCookieStore;
 import org.apache.http.impl.client.BasicCredentialsProvider;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
 import org.apache.http.impl.client.LaxRedirectStrategy;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 import org.apache.http.impl.conn.SystemDefaultRoutePlanner;
 import org.apache.http.impl.cookie.DefaultCookieSpec;
 import org.apache.http.protocol.HttpContext;
 import org.apache.http.ssl.SSLContextBuilder;
 import org.apache.http.ssl.SSLContexts;
+import org.apache.http.util.EntityUtils;
 
 /**
  *
@@ -96,6 +99,9 @@ public class ApacheHttpClient implements HttpClient, HttpRequestInterceptor {
 
     private HttpClientBuilder clientBuilder;
     private CookieStore cookieStore;
+    private CloseableHttpClient client; // only re-used when pooled
+    private ApacheHttpClientPool pool;
+    private PoolingHttpClientConnectionManager connectionManager;
 
     public static class LenientCookieSpec extends DefaultCookieSpec {
         
@@ -131,6 +137,14 @@ public class ApacheHttpClient implements HttpClient, HttpRequestInterceptor {
     }
 
     private void configure(Config config) {
+        if (client != null) {
+            try { // if pooled, this will not close the shared connection manager
+                client.close();
+            } catch (Exception e) {
+                logger.warn("failed to close http client: {}", e.getMessage());
+            }
+            client = null;
+        }
         clientBuilder = HttpClientBuilder.create();
         clientBuilder.disableAutomaticRetries();
         if (!config.isFollowRedirects()) {
@@ -142,44 +156,38 @@ public class ApacheHttpClient implements HttpClient, HttpRequestInterceptor {
         clientBuilder.setDefaultCookieStore(cookieStore);
         clientBuilder.setDefaultCookieSpecRegistry(LenientCookieSpec.registry());
         clientBuilder.useSystemProperties();
-        if (config.isSslEnabled()) {
-            // System.setProperty("jsse.enableSNIExtension", "false");
-            String algorithm = config.getSslAlgorithm(); // could be null
-            KeyStore trustStore = engine.getKeyStore(config.getSslTrustStore(), config.getSslTrustStorePassword(), config.getSslTrustStoreType());
-            KeyStore keyStore = engine.getKeyStore(config.getSslKeyStore(), config.getSslKeyStorePassword(), config.getSslKeyStoreType());
-            SSLContext sslContext;
-            try {
-                SSLContextBuilder builder = SSLContexts.custom()
-                        .setProtocol(algorithm); // will default to TLS if null
-                if (trustStore == null && config.isSslTrustAll()) {
-                    builder = builder.loadTrustMaterial(new TrustAllStrategy());
-                } else {
-                    if (config.isSslTrustAll()) {
-                        builder = builder.loadTrustMaterial(trustStore, new TrustSelfSignedStrategy());
-                    } else {
-                        builder = builder.loadTrustMaterial(trustStore, null); // will use system / java default
-                    }
-                }
-                if (keyStore != null) {
-                    char[] keyPassword = config.getSslKeyStorePassword() == null ? null : config.getSslKeyStorePassword().toCharArray();
-                    builder = builder.loadKeyMaterial(keyStore, keyPassword);
-                }
-                sslContext = builder.build();
-                SSLConnectionSocketFactory socketFactory;
-                if (keyStore != null) {
-                    socketFactory = new SSLConnectionSocketFactory(sslContext, new NoopHostnameVerifier());
-                } else {
-                    socketFactory = new LenientSslConnectionSocketFactory(sslContext, new NoopHostnameVerifier());
-                }
+        pool = null;
+        connectionManager = null;
+        if (config.isConnectionPoolEnabled()) {
+            pool = engine.runtime == null ? null : engine.runtime.featureRuntime.suite.httpClientPool;
+            if (pool == null) {
+                logger.warn("connection pool not available, will use un-pooled http client");
+            } else {
+                connectionManager = pool.get(config, () -> sslSocketFactory(config));
+            }
+        }
+        if (connectionManager != null) {
+            // the socket factories (and ssl config) live in the shared connection manager
+            clientBuilder.setConnectionManager(connectionManager);
+            clientBuilder.setConnectionManagerShared(true);
+            if (config.getConnectionPoolKeepAlive() >= 0) {
+                long keepAlive = config.getConnectionPoolKeepAlive();
+                clientBuilder.setKeepAliveStrategy((hr, hc) -> {
+                    long fromServer = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(hr, hc);
+                    return fromServer > 0 ? Math.min(fromServer, keepAlive) : keepAlive;
+                });
+            }
+        } else {
+            SSLConnectionSocketFactory socketFactory = sslSocketFactory(config);
+            if (socketFactory != null) {
                 clientBuilder.setSSLSocketFactory(socketFactory);
-            } catch (Exception e) {
-                logger.error("ssl context init failed: {}", e.getMessage());
-                throw new RuntimeException(e);
             }
         }
         RequestConfig.Builder configBuilder = RequestConfig.custom()
                 .setCookieSpec(LenientCookieSpec.KARATE)
                 .setConnectTimeout(config.getConnectTimeout())
+                // else a leaked or exhausted pool would make a request wait forever for a connection
+                .setConnectionRequestTimeout(config.getConnectTimeout())
                 .setSocketTimeout(config.getReadTimeout());
         if (config.getLocalAddress() != null) {
             try {
@@ -228,6 +236,45 @@ public class ApacheHttpClient implements HttpClient, HttpRequestInterceptor {
         clientBuilder.addInterceptorLast(this);
     }
 
+    private SSLConnectionSocketFactory sslSocketFactory(Config config) {
+        if (!config.isSslEnabled()) {
+            return null;
+        }
+        // System.setProperty("jsse.enableSNIExtension", "false");
+        String algorithm = config.getSslAlgorithm(); // could be null
+        KeyStore trustStore = engine.getKeyStore(config.getSslTrustStore(), config.getSslTrustStorePassword(), config.getSslTrustStoreType());
+        KeyStore keyStore = engine.getKeyStore(config.getSslKeyStore(), config.getSslKeyStorePassword(), config.getSslKeyStoreType());
+        SSLContext sslContext;
+        try {
+            SSLContextBuilder builder = SSLContexts.custom()
+                    .setProtocol(algorithm); // will default to TLS if null
+            if (trustStore == null && config.isSslTrustAll()) {
+                builder = builder.loadTrustMaterial(new TrustAllStrategy());
+            } else {
+                if (config.isSslTrustAll()) {
+                    builder = builder.loadTrustMaterial(trustStore, new TrustSelfSignedStrategy());
+                } else {
+                    builder = builder.loadTrustMaterial(trustStore, null); // will use system / java default
+                }
+            }
+            if (keyStore != null) {
+                char[] keyPassword = config.getSslKeyStorePassword() == null ? null : config.getSslKeyStorePassword().toCharArray();
+                builder = builder.loadKeyMaterial(keyStore, keyPassword);
+            }
+            sslContext = builder.build();
+            SSLConnectionSocketFactory socketFactory;
+            if (keyStore != null) {
+                socketFactory = new SSLConnectionSocketFactory(sslContext, new NoopHostnameVerifier());
+            } else {
+                socketFactory = new LenientSslConnectionSocketFactory(sslContext, new NoopHostnameVerifier());
+            }
+            return socketFactory;
+        } catch (Exception e) {
+            logger.error("ssl context init failed: {}", e.getMessage());
+            throw new RuntimeException(e);
+        }
+    }
+
     @Override
     public void setConfig(Config config) {
         configure(config);
@@ -266,17 +313,29 @@ public class ApacheHttpClient implements HttpClient, HttpRequestInterceptor {
         if (request.getHeaders() != null) {
             request.getHeaders().forEach((k, vals) -> vals.forEach(v -> requestBuilder.addHeader(k, v)));
         }
-        CloseableHttpClient client = clientBuilder.build();
-        CloseableHttpResponse httpResponse;
+        CloseableHttpClient client;
+        if (connectionManager == null) { // un-pooled, new connection every time
+            client = clientBuilder.build();
+        } else {
+            if (this.client == null) {
+                this.client = clientBuilder.build();
+            }
+            client = this.client;
+        }
+        CloseableHttpResponse httpResponse = null;
         byte[] bytes;
         try {
             httpResponse = client.execute(requestBuilder.build());
+            if (pool != null) { // before the entity is consumed and the connection released
+                pool.sample(connectionManager);
+            }
             HttpEntity responseEntity = httpResponse.getEntity();
             if (responseEntity == null || responseEntity.getContent() == null) {
                 bytes = Constants.ZERO_BYTES;
             } else {
                 InputStream is = responseEntity.getContent();
                 bytes = FileUtils.toBytes(is);
+                EntityUtils.consumeQuietly(responseEntity); // fully read, so the connection can be re-used
             }
             request.setEndTimeMillis(System.currentTimeMillis());
         } catch (Exception e) {
@@ -285,6 +344,15 @@ public class ApacheHttpClient implements HttpClient, HttpRequestInterceptor {
             } else {
                 throw new RuntimeException(e);
             }
+        } finally {
+            if (httpResponse != null) {
+                // releases the connection, if the body was not fully read (e.g. a read timeout) it is dropped, not re-used
+                try {
+                    httpResponse.close();
+                } catch (Exception e) {
+                    logger.warn("failed to close http response: {}", e.getMessage());
+                }
+            }
         }
         Map<String, List<String>> headers;
         List<Cookie> cookies = cookieStore.getCookies();
@@ -0,0 +1,172 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2021 Intuit Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.intuit.karate.http;
+
+import com.intuit.karate.core.Config;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * suite-scoped connection managers for the apache http client, so that tcp
+ * and tls connections are re-used across requests and scenarios, there is one
+ * manager per distinct ssl configuration because the socket factories are
+ * owned by the connection manager
+ *
+ * @author pthomas3
+ */
+public class ApacheHttpClientPool {
+
+    private static final Logger logger = LoggerFactory.getLogger(ApacheHttpClientPool.class);
+
+    private static final long EVICT_INTERVAL_MILLIS = 5000;
+
+    private final Map<String, PoolingHttpClientConnectionManager> managers = new ConcurrentHashMap();
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong peakLeased = new AtomicLong();
+    private final AtomicLong peakPending = new AtomicLong();
+
+    private volatile int idleTimeout = Config.DEFAULT_TIMEOUT;
+    private ScheduledExecutorService evictor;
+    private volatile boolean used;
+    private Map<String, Object> closedStats;
+
+    public static String key(Config config) {
+        if (!config.isSslEnabled()) {
+            return "http";
+        }
+        return "ssl|" + config.getSslAlgorithm()
+                + "|" + config.getSslKeyStore() + "|" + config.getSslKeyStoreType()
+                + "|" + config.getSslTrustStore() + "|" + config.getSslTrustStoreType()
+                + "|" + config.isSslTrustAll();
+    }
+
+    // returns null if the suite is over, the caller can fall back to an un-pooled client
+    public synchronized PoolingHttpClientConnectionManager get(Config config, Supplier<SSLConnectionSocketFactory> sslFactory) {
+        if (closedStats != null) {
+            return null;
+        }
+        PoolingHttpClientConnectionManager cm = managers.computeIfAbsent(key(config), k -> {
+            SSLConnectionSocketFactory ssl = sslFactory.get();
+            Registry<ConnectionSocketFactory> registry = RegistryBuilder.<ConnectionSocketFactory>create()
+                    .register("http", PlainConnectionSocketFactory.getSocketFactory())
+                    .register("https", ssl == null ? SSLConnectionSocketFactory.getSystemSocketFactory() : ssl)
+                    .build();
+            logger.debug("created http connection pool: {}", k);
+            return new PoolingHttpClientConnectionManager(registry);
+        });
+        used = true;
+        // limits are suite-wide, the most recent 'configure' wins
+        cm.setMaxTotal(config.getConnectionPoolMaxTotal());
+        cm.setDefaultMaxPerRoute(config.getConnectionPoolMaxPerRoute());
+        idleTimeout = config.getConnectionPoolIdleTimeout();
+        if (evictor == null) {
+            evictor = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "karate-http-pool-evictor");
+                thread.setDaemon(true);
+                return thread;
+            });
+            evictor.scheduleWithFixedDelay(this::evict, EVICT_INTERVAL_MILLIS, EVICT_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+        }
+        return cm;
+    }
+
+    private void evict() {
+        managers.values().forEach(cm -> {
+            cm.closeExpiredConnections();
+            cm.closeIdleConnections(idleTimeout, TimeUnit.MILLISECONDS);
+        });
+    }
+
+    // called after a request completes, only to track the high-water marks
+    public void sample(PoolingHttpClientConnectionManager cm) {
+        requests.incrementAndGet();
+        PoolStats stats = cm.getTotalStats();
+        peakLeased.accumulateAndGet(stats.getLeased(), Math::max);
+        peakPending.accumulateAndGet(stats.getPending(), Math::max);
+    }
+
+    public boolean isEmpty() {
+        return !used;
+    }
+
+    public synchronized Map<String, Object> getStats() {
+        if (closedStats != null) {
+            return closedStats;
+        }
+        int leased = 0;
+        int pending = 0;
+        int available = 0;
+        int max = 0;
+        for (PoolingHttpClientConnectionManager cm : managers.values()) {
+            PoolStats stats = cm.getTotalStats();
+            leased += stats.getLeased();
+            pending += stats.getPending();
+            available += stats.getAvailable();
+            max += stats.getMax();
+        }
+        Map<String, Object> map = new LinkedHashMap();
+        map.put("pools", managers.size());
+        map.put("requests", requests.get());
+        map.put("leased", leased);
+        map.put("pending", pending);
+        map.put("available", available);
+        map.put("max", max);
+        map.put("peakLeased", peakLeased.get());
+        map.put("peakPending", peakPending.get());
+        return map;
+    }
+
+    public synchronized void close() {
+        if (closedStats != null) {
+            return;
+        }
+        closedStats = getStats(); // retain for the report
+        if (evictor != null) {
+            evictor.shutdownNow();
+        }
+        managers.values().forEach(PoolingHttpClientConnectionManager::shutdown);
+        managers.clear();
+    }
+
+    @Override
+    public String toString() {
+        return getStats().toString();
+    }
+
+}
@@ -36,4 +36,8 @@ public interface HttpClientFactory {
 
     HttpClientFactory DEFAULT = ApacheHttpClient::new;
 
+    // netty based, a thread waiting on a response can be parked (e.g. a virtual thread)
+    // but does not support the ssl, proxy and other connection related config
+    HttpClientFactory ARMERIA = engine -> new ArmeriaHttpClient(engine.getConfig(), engine.logger);
+
 }
@@ -115,6 +115,9 @@ public class HttpLogger {
 
     public void logRequest(Config config, HttpRequest request) {
         requestCount++;
+        if (!logger.isDebugEnabled()) {
+            return; // don't format what would be thrown away
+        }
         String uri = request.getUrl();
         HttpLogModifier requestModifier = logModifier(config, uri);
         String maskedUri = requestModifier == null ? uri : requestModifier.uri(uri);
@@ -134,6 +137,9 @@ public class HttpLogger {
     }
 
     public void logResponse(Config config, HttpRequest request, Response response) {
+        if (!logger.isDebugEnabled()) {
+            return;
+        }
         long startTime = request.getStartTimeMillis();
         long elapsedTime = request.getEndTimeMillis() - startTime;
         StringBuilder sb = new StringBuilder();
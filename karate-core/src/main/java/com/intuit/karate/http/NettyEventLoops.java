@@ -0,0 +1,103 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 Intuit Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.intuit.karate.http;
+
+import com.intuit.karate.Constants;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import java.util.concurrent.ThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * one jvm-wide event loop group for outbound (client) connections, the proxy
+ * upstream side and web-socket clients, instead of a new group (and threads)
+ * per connection, uses epoll when available, the number of threads can be set
+ * via the system property "karate.netty.threads" (default is netty's default),
+ * epoll is a runtime-only dependency (via armeria) so it is looked up by name
+ *
+ * @author pthomas3
+ */
+public class NettyEventLoops {
+
+    private static final Logger logger = LoggerFactory.getLogger(NettyEventLoops.class);
+
+    private static final String EPOLL_PACKAGE = "io.netty.channel.epoll.";
+
+    private NettyEventLoops() {
+        // only static methods
+    }
+
+    private static EventLoopGroup group;
+    private static Class<? extends SocketChannel> channelClass;
+
+    public static synchronized EventLoopGroup client() {
+        if (group == null || group.isShuttingDown()) {
+            int threads = Integer.getInteger(Constants.KARATE_NETTY_THREADS, 0); // 0 means netty default
+            // daemon, so that the jvm can exit even if nobody calls shutdown()
+            DefaultThreadFactory factory = new DefaultThreadFactory("karate-netty-client", true);
+            boolean epoll = isEpoll();
+            if (epoll) {
+                try {
+                    group = (EventLoopGroup) Class.forName(EPOLL_PACKAGE + "EpollEventLoopGroup")
+                            .getConstructor(int.class, ThreadFactory.class).newInstance(threads, factory);
+                    channelClass = (Class) Class.forName(EPOLL_PACKAGE + "EpollSocketChannel");
+                } catch (Exception e) {
+                    logger.warn("epoll init failed, will use nio: {}", e + "");
+                    epoll = false;
+                }
+            }
+            if (!epoll) {
+                group = new NioEventLoopGroup(threads, factory);
+                channelClass = NioSocketChannel.class;
+            }
+            logger.debug("created shared client event loop group, epoll: {}, threads: {}", epoll, threads == 0 ? "default" : threads);
+        }
+        return group;
+    }
+
+    public static boolean isEpoll() {
+        try {
+            return (Boolean) Class.forName(EPOLL_PACKAGE + "Epoll").getMethod("isAvailable").invoke(null);
+        } catch (Throwable t) { // not on the classpath, or native library could not be loaded
+            return false;
+        }
+    }
+
+    public static synchronized Class<? extends SocketChannel> socketChannelClass() {
+        client();
+        return channelClass;
+    }
+
+    public static synchronized void shutdown() {
+        if (group != null) {
+            group.shutdownGracefully();
+            group = null;
+        }
+    }
+
+}
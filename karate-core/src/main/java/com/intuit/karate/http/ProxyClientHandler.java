@@ -31,8 +31,6 @@ import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelPipeline;
 import io.netty.channel.SimpleChannelInboundHandler;
-import io.netty.channel.nio.NioEventLoopGroup;
-import io.netty.channel.socket.nio.NioSocketChannel;
 import io.netty.handler.codec.http.FullHttpRequest;
 import io.netty.handler.codec.http.HttpClientCodec;
 import io.netty.handler.codec.http.HttpContentDecompressor;
@@ -61,6 +59,7 @@ public class ProxyClientHandler extends SimpleChannelInboundHandler<FullHttpRequ
     protected final ResponseFilter responseFilter;
     private final Map<String, ProxyRemoteHandler> REMOTE_HANDLERS = new ConcurrentHashMap();
     private final Object LOCK = new Object();
+    private boolean proceed; // guarded by LOCK, so that an early unlock is not lost
     
     private ProxyRemoteHandler remoteHandler;
     protected Channel clientChannel;
@@ -75,6 +74,11 @@ public class ProxyClientHandler extends SimpleChannelInboundHandler<FullHttpRequ
         clientChannel = ctx.channel();
     }
 
+    @Override
+    public void handlerAdded(ChannelHandlerContext ctx) {
+        clientChannel = ctx.channel(); // may be added after the channel is active
+    }
+
     @Override
     protected void channelRead0(ChannelHandlerContext ctx, FullHttpRequest request) throws Exception {
         boolean isConnect = HttpMethod.CONNECT.equals(request.method());
@@ -91,8 +95,10 @@ public class ProxyClientHandler extends SimpleChannelInboundHandler<FullHttpRequ
             logger.trace(">> init: {} - {}", pc, request);
         }
         Bootstrap b = new Bootstrap();
-        b.group(new NioEventLoopGroup(4));
-        b.channel(NioSocketChannel.class);
+        // shared, not per inbound connection - note that this must never be the
+        // inbound (server) group, since the inbound side blocks until the remote is ready
+        b.group(NettyEventLoops.client());
+        b.channel(NettyEventLoops.socketChannelClass());
         b.handler(new ChannelInitializer() {
             @Override
             protected void initChannel(Channel remoteChannel) throws Exception {
@@ -155,12 +161,16 @@ public class ProxyClientHandler extends SimpleChannelInboundHandler<FullHttpRequ
 
     private void lockAndWait() throws Exception {
         synchronized (LOCK) {
-            LOCK.wait();
+            while (!proceed) {
+                LOCK.wait();
+            }
+            proceed = false;
         }
     }
 
     protected void unlockAndProceed() {
         synchronized (LOCK) {
+            proceed = true;
             LOCK.notify();
         }
     }
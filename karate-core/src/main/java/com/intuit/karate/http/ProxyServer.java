@@ -31,8 +31,10 @@ import io.netty.channel.EventLoopGroup;
 import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.channel.socket.nio.NioServerSocketChannel;
 import io.netty.handler.codec.http.HttpObjectAggregator;
+import io.netty.handler.codec.http.HttpRequest;
 import io.netty.handler.codec.http.HttpServerCodec;
 import java.net.InetSocketAddress;
+import java.util.function.Predicate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -44,6 +46,8 @@ public class ProxyServer {
 
     private static final Logger logger = LoggerFactory.getLogger(ProxyServer.class);
 
+    static final int MAX_CONTENT_LENGTH = 1048576;
+
     private final Channel channel;
     private final int port;
     private final EventLoopGroup bossGroup;
@@ -69,6 +73,27 @@ public class ProxyServer {
     }
 
     public ProxyServer(int requestedPort, RequestFilter requestFilter, ResponseFilter responseFilter) {
+        this(requestedPort, requestFilter, responseFilter, false);
+    }
+
+    /**
+     * @param streaming if true, bodies are not buffered (no size limit) but
+     * the filters only get to see (and change) the headers, and https is
+     * tunnelled as-is, see ProxyStreamingHandler
+     */
+    public ProxyServer(int requestedPort, RequestFilter requestFilter, ResponseFilter responseFilter, boolean streaming) {
+        this(requestedPort, requestFilter, responseFilter, streaming, null);
+    }
+
+    /**
+     * @param streaming see above
+     * @param inspectBody only if streaming, a request whose head (line and
+     * headers) matches is handled as if not streaming, so the filters see the
+     * full request and response bodies (up to the same 1 MB limit), can be
+     * null
+     */
+    public ProxyServer(int requestedPort, RequestFilter requestFilter, ResponseFilter responseFilter,
+            boolean streaming, Predicate<HttpRequest> inspectBody) {
         bossGroup = new NioEventLoopGroup(1);
         workerGroup = new NioEventLoopGroup(8);
         try {
@@ -80,15 +105,19 @@ public class ProxyServer {
                         protected void initChannel(Channel c) {
                             ChannelPipeline p = c.pipeline();
                             p.addLast(new HttpServerCodec());
-                            p.addLast(new HttpObjectAggregator(1048576));
-                            p.addLast(new ProxyClientHandler(requestFilter, responseFilter));
+                            if (streaming) {
+                                p.addLast(new ProxyStreamingHandler(requestFilter, responseFilter, inspectBody));
+                            } else {
+                                p.addLast(new HttpObjectAggregator(MAX_CONTENT_LENGTH));
+                                p.addLast(new ProxyClientHandler(requestFilter, responseFilter));
+                            }
                         }
                     });
             channel = b.bind(requestedPort).sync().channel();
             InetSocketAddress isa = (InetSocketAddress) channel.localAddress();
             String host = "127.0.0.1"; //isa.getHostString();
             port = isa.getPort();
-            logger.info("proxy server started - http://{}:{}", host, port);
+            logger.info("proxy server started - http://{}:{}{}", host, port, streaming ? " (streaming)" : "");
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
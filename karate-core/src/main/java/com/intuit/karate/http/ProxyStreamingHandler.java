@@ -0,0 +1,305 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 Intuit Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.intuit.karate.http;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelPipeline;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.handler.codec.http.DefaultFullHttpRequest;
+import io.netty.handler.codec.http.DefaultFullHttpResponse;
+import io.netty.handler.codec.http.EmptyHttpHeaders;
+import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpClientCodec;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpObjectAggregator;
+import io.netty.handler.codec.http.HttpRequest;
+import io.netty.handler.codec.http.HttpResponse;
+import io.netty.handler.codec.http.HttpServerCodec;
+import io.netty.handler.codec.http.LastHttpContent;
+import io.netty.util.ReferenceCountUtil;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * pass-through (non-aggregating) alternative to the proxy client and remote
+ * handlers, the body is forwarded chunk by chunk as it arrives, with
+ * back-pressure, so memory use does not depend on the payload size, filters
+ * only see the headers (the body of what they are given is always empty) and
+ * a CONNECT is tunnelled as raw bytes - so https traffic is not filtered,
+ * unless the request head matches the (optional) inspect-body predicate, and
+ * then the rest of the connection is handed over to the aggregating handlers
+ *
+ * @author pthomas3
+ */
+public class ProxyStreamingHandler extends ChannelInboundHandlerAdapter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProxyStreamingHandler.class);
+
+    private final RequestFilter requestFilter;
+    private final ResponseFilter responseFilter;
+    private final Predicate<HttpRequest> inspectBody;
+
+    private final List<Object> pending = new ArrayList(); // until the remote is connected
+    private Channel clientChannel;
+    private Channel remoteChannel;
+    private ProxyContext proxyContext;
+    private FullHttpRequest currentHead; // headers only, for the response filter
+    private boolean discardRequest; // the request filter replied, drop the body
+    private boolean tunnel;
+
+    public ProxyStreamingHandler(RequestFilter requestFilter, ResponseFilter responseFilter) {
+        this(requestFilter, responseFilter, null);
+    }
+
+    public ProxyStreamingHandler(RequestFilter requestFilter, ResponseFilter responseFilter, Predicate<HttpRequest> inspectBody) {
+        this.requestFilter = requestFilter;
+        this.responseFilter = responseFilter;
+        this.inspectBody = inspectBody;
+    }
+
+    @Override
+    public void channelActive(ChannelHandlerContext ctx) {
+        clientChannel = ctx.channel();
+    }
+
+    @Override
+    public void channelRead(ChannelHandlerContext ctx, Object msg) {
+        if (tunnel) {
+            forward(msg);
+            return;
+        }
+        if (msg instanceof HttpRequest) {
+            HttpRequest request = (HttpRequest) msg;
+            if (inspectBody != null && remoteChannel == null && inspectBody.test(request)) {
+                aggregate(ctx, msg);
+                return;
+            }
+            if (HttpMethod.CONNECT.equals(request.method())) {
+                ReferenceCountUtil.release(msg);
+                connect(ctx, new ProxyContext(request, true), true);
+                return;
+            }
+            proxyContext = new ProxyContext(request, false);
+            currentHead = headersOnly(request);
+            discardRequest = false;
+            if (requestFilter != null) {
+                ProxyResponse pr = requestFilter.apply(proxyContext, currentHead);
+                if (pr != null && pr.response != null) { // short circuit
+                    discardRequest = true;
+                    ReferenceCountUtil.release(msg);
+                    clientChannel.writeAndFlush(pr.response).addListener(ChannelFutureListener.CLOSE);
+                    return;
+                }
+                if (pr != null && pr.request != null) { // transformed, but only the line and headers apply
+                    request.setMethod(pr.request.method());
+                    request.setUri(pr.request.uri());
+                    request.headers().set(pr.request.headers());
+                }
+            }
+            if (logger.isTraceEnabled()) {
+                logger.trace(">> {}", request);
+            }
+            HttpUtils.fixHeadersForProxy(request);
+            if (remoteChannel == null) {
+                pending.add(msg);
+                connect(ctx, proxyContext, false);
+                return;
+            }
+        } else if (discardRequest) {
+            ReferenceCountUtil.release(msg);
+            return;
+        }
+        forward(msg);
+    }
+
+    private void aggregate(ChannelHandlerContext ctx, Object msg) {
+        if (logger.isTraceEnabled()) {
+            logger.trace(">> aggregating: {}", msg);
+        }
+        ChannelPipeline p = ctx.pipeline();
+        p.addAfter(ctx.name(), null, new ProxyClientHandler(requestFilter, responseFilter));
+        p.replace(this, null, new HttpObjectAggregator(ProxyServer.MAX_CONTENT_LENGTH));
+        // from the codec, so that the aggregator gets this request
+        p.context(HttpServerCodec.class).fireChannelRead(msg);
+    }
+
+    private void forward(Object msg) {
+        if (remoteChannel == null || !remoteChannel.isActive()) {
+            pending.add(msg);
+            return;
+        }
+        remoteChannel.writeAndFlush(msg);
+        if (!remoteChannel.isWritable()) { // resumed in the remote handler
+            clientChannel.config().setAutoRead(false);
+        }
+    }
+
+    private void connect(ChannelHandlerContext ctx, ProxyContext pc, boolean isConnect) {
+        clientChannel.config().setAutoRead(false); // until the remote is ready
+        Bootstrap b = new Bootstrap();
+        // same event loop as the inbound side, no thread hand-off and nothing blocks
+        b.group(clientChannel.eventLoop());
+        b.channel(NioSocketChannel.class);
+        b.handler(new ChannelInitializer() {
+            @Override
+            protected void initChannel(Channel c) {
+                if (!isConnect) {
+                    c.pipeline().addLast(new HttpClientCodec());
+                }
+                c.pipeline().addLast(new RemoteHandler());
+            }
+        });
+        b.connect(pc.host, pc.port).addListener((ChannelFutureListener) future -> {
+            if (!future.isSuccess()) {
+                logger.error("proxy remote connect failed: {} - {}", pc, future.cause() + "");
+                pending.forEach(ReferenceCountUtil::release);
+                pending.clear();
+                HttpUtils.flushAndClose(clientChannel);
+                return;
+            }
+            remoteChannel = future.channel();
+            clientChannel.closeFuture().addListener(f -> HttpUtils.flushAndClose(remoteChannel));
+            if (isConnect) {
+                clientChannel.writeAndFlush(HttpUtils.connectionEstablished()).addListener(f -> {
+                    ctx.pipeline().remove(HttpServerCodec.class);
+                    tunnel = true;
+                    clientChannel.config().setAutoRead(true);
+                });
+            } else {
+                pending.forEach(remoteChannel::write);
+                pending.clear();
+                remoteChannel.flush();
+                clientChannel.config().setAutoRead(true);
+            }
+            if (logger.isTraceEnabled()) {
+                logger.trace("** ready: {} - {}", pc, remoteChannel);
+            }
+        });
+    }
+
+    @Override
+    public void channelWritabilityChanged(ChannelHandlerContext ctx) {
+        if (clientChannel.isWritable() && remoteChannel != null) {
+            remoteChannel.config().setAutoRead(true);
+        }
+    }
+
+    @Override
+    public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+        logger.error("closing proxy inbound connection: {}", cause + "");
+        ctx.close();
+        HttpUtils.flushAndClose(remoteChannel);
+    }
+
+    private static FullHttpRequest headersOnly(HttpRequest request) {
+        return new DefaultFullHttpRequest(request.protocolVersion(), request.method(), request.uri(),
+                Unpooled.EMPTY_BUFFER, request.headers().copy(), EmptyHttpHeaders.INSTANCE);
+    }
+
+    private static FullHttpResponse headersOnly(HttpResponse response) {
+        return new DefaultFullHttpResponse(response.protocolVersion(), response.status(),
+                Unpooled.EMPTY_BUFFER, response.headers().copy(), EmptyHttpHeaders.INSTANCE);
+    }
+
+    class RemoteHandler extends ChannelInboundHandlerAdapter {
+
+        private boolean discardResponse; // the response filter replaced it, drop the body
+
+        @Override
+        public void channelRead(ChannelHandlerContext ctx, Object msg) {
+            if (tunnel) {
+                write(msg, false);
+                return;
+            }
+            if (msg instanceof HttpResponse) {
+                HttpResponse response = (HttpResponse) msg;
+                if (logger.isTraceEnabled()) {
+                    logger.trace("<< {}", response);
+                }
+                discardResponse = false;
+                if (responseFilter != null) {
+                    FullHttpResponse head = headersOnly(response);
+                    ProxyResponse pr = responseFilter.apply(proxyContext, currentHead, head);
+                    if (pr != null && pr.response != null) {
+                        if (pr.response == head) { // only headers changed
+                            response.headers().set(head.headers());
+                        } else {
+                            discardResponse = true;
+                            ReferenceCountUtil.release(msg);
+                            clientChannel.writeAndFlush(pr.response).addListener(ChannelFutureListener.CLOSE);
+                            return;
+                        }
+                    }
+                }
+            } else if (discardResponse) {
+                ReferenceCountUtil.release(msg);
+                return;
+            }
+            // same as the aggregating handler, the client connection is closed after the response
+            write(msg, msg instanceof LastHttpContent);
+        }
+
+        private void write(Object msg, boolean last) {
+            if (last) {
+                clientChannel.writeAndFlush(msg).addListener(ChannelFutureListener.CLOSE);
+                return;
+            }
+            clientChannel.writeAndFlush(msg);
+            if (!clientChannel.isWritable()) { // resumed in channelWritabilityChanged() above
+                remoteChannel.config().setAutoRead(false);
+            }
+        }
+
+        @Override
+        public void channelWritabilityChanged(ChannelHandlerContext ctx) {
+            if (ctx.channel().isWritable()) {
+                clientChannel.config().setAutoRead(true);
+            }
+        }
+
+        @Override
+        public void channelInactive(ChannelHandlerContext ctx) {
+            HttpUtils.flushAndClose(clientChannel);
+        }
+
+        @Override
+        public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) {
+            logger.error("closing proxy outbound connection: {}", cause + "");
+            ctx.close();
+            HttpUtils.flushAndClose(clientChannel);
+        }
+
+    }
+
+}
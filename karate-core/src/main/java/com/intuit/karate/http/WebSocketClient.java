@@ -24,15 +24,14 @@
 package com.intuit.karate.http;
 
 import com.intuit.karate.Logger;
+import com.intuit.karate.core.PerfEvent;
 import io.netty.bootstrap.Bootstrap;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
 import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelPipeline;
-import io.netty.channel.EventLoopGroup;
-import io.netty.channel.nio.NioEventLoopGroup;
-import io.netty.channel.socket.nio.NioSocketChannel;
 import io.netty.handler.codec.http.DefaultHttpHeaders;
 import io.netty.handler.codec.http.FullHttpRequest;
 import io.netty.handler.codec.http.HttpClientCodec;
@@ -54,6 +53,7 @@ import java.net.URI;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import javax.net.ssl.SSLException;
 
@@ -67,7 +67,6 @@ public class WebSocketClient implements WebSocketListener {
     private Logger logger;
 
     private final Channel channel;
-    private final EventLoopGroup group;
 
     private final URI uri;
     private final int port;
@@ -99,6 +98,37 @@ public class WebSocketClient implements WebSocketListener {
     public void setLogger(Logger logger) {
         this.logger = logger;
     }
+
+    // gatling only, null otherwise
+    private Consumer<PerfEvent> perfEventHandler;
+
+    public void setPerfEventHandler(Consumer<PerfEvent> perfEventHandler) {
+        this.perfEventHandler = perfEventHandler;
+    }
+
+    // not when called from a handler (on the event-loop), the engine is not thread-safe and we cannot block there
+    private boolean isPerfEnabled() {
+        return perfEventHandler != null && !channel.eventLoop().inEventLoop();
+    }
+
+    private void capturePerfEvent(String name, long startTime, String failureMessage) {
+        PerfEvent event = new PerfEvent(startTime, System.currentTimeMillis(), name + " " + uri.getPath(), 200);
+        if (failureMessage != null) {
+            event.setFailed(true);
+            event.setMessage(failureMessage);
+        }
+        perfEventHandler.accept(event);
+    }
+
+    private void write(Object frame) {
+        if (isPerfEnabled()) { // wait for the write, else there is nothing to time
+            long startTime = System.currentTimeMillis();
+            ChannelFuture future = channel.writeAndFlush(frame).awaitUninterruptibly();
+            capturePerfEvent("websocket send", startTime, future.isSuccess() ? null : "send failed: " + future.cause());
+        } else {
+            channel.writeAndFlush(frame);
+        }
+    }
     
     public WebSocketClient(WebSocketOptions options, Logger logger) {
         this.logger = logger;
@@ -106,7 +136,6 @@ public class WebSocketClient implements WebSocketListener {
         binaryHandler = options.getBinaryHandler();
         uri = options.getUri();
         port = options.getPort();
-        group = new NioEventLoopGroup();
         if (options.isSsl()) {
             try {
                 sslContext = SslContextBuilder.forClient().trustManager(InsecureTrustManagerFactory.INSTANCE).build();
@@ -126,8 +155,8 @@ public class WebSocketClient implements WebSocketListener {
         handler = new WebSocketClientHandler(handShaker, this);
         try {
             Bootstrap b = new Bootstrap();
-            b.group(group)
-                    .channel(NioSocketChannel.class)
+            b.group(NettyEventLoops.client()) // shared, a socket does not need its own threads
+                    .channel(NettyEventLoops.socketChannelClass())
                     .handler(new ChannelInitializer() {
                         @Override
                         protected void initChannel(Channel c) {
@@ -174,7 +203,6 @@ public class WebSocketClient implements WebSocketListener {
     public void close() {
         channel.writeAndFlush(new CloseWebSocketFrame());
         waitSync();
-        group.shutdownGracefully();
     }
 
     public void ping() {
@@ -184,7 +212,7 @@ public class WebSocketClient implements WebSocketListener {
 
     public void send(String msg) {
         WebSocketFrame frame = new TextWebSocketFrame(msg);
-        channel.writeAndFlush(frame);
+        write(frame);
         if (logger.isTraceEnabled()) {
             logger.trace("sent: {}", msg);
         }
@@ -197,7 +225,7 @@ public class WebSocketClient implements WebSocketListener {
     public void sendBytes(byte[] msg) {
         ByteBuf byteBuf = Unpooled.copiedBuffer(msg);
         BinaryWebSocketFrame frame = new BinaryWebSocketFrame(byteBuf);
-        channel.writeAndFlush(frame);
+        write(frame);
     }
 
     private CompletableFuture SIGNAL = new CompletableFuture();
@@ -208,11 +236,19 @@ public class WebSocketClient implements WebSocketListener {
     }
 
     public synchronized Object listen(long timeout) {
+        long startTime = System.currentTimeMillis();
         try {
             logger.trace("entered listen wait state");
-            return SIGNAL.get(timeout, TimeUnit.MILLISECONDS);
+            Object result = SIGNAL.get(timeout, TimeUnit.MILLISECONDS);
+            if (isPerfEnabled()) {
+                capturePerfEvent("websocket listen", startTime, null);
+            }
+            return result;
         } catch (Exception e) {
             logger.error("listen timed out: {}", e + "");
+            if (isPerfEnabled()) {
+                capturePerfEvent("websocket listen", startTime, "listen timed out: " + e);
+            }
             return null;
         }
     }
@@ -48,6 +48,21 @@ public interface JobConfig<T> {
         return -1;
     }
 
+    // chunks handed out per 'next' round-trip
+    default int getBatchSize() {
+        return 1;
+    }
+
+    // chunks run concurrently by each executor, each chunk gets its own executor dir
+    default int getExecutorThreads() {
+        return 1;
+    }
+
+    // if true, an executor asks for the next batch while the current one is running
+    default boolean isPrefetch() {
+        return false;
+    }
+
     default String getSourcePath() {
         return "";
     }
@@ -52,6 +52,9 @@ public abstract class JobConfigBase<T> implements JobConfig<T> {
 
     protected String addOptions = "";
     protected String dockerImage = "ptrthomas/karate-chrome";
+    protected int batchSize = 1;
+    protected int executorThreads = 1;
+    protected boolean prefetch;
 
     public JobConfigBase(int executorCount, String host, int port) {
         this.executorCount = executorCount;
@@ -64,6 +67,18 @@ public abstract class JobConfigBase<T> implements JobConfig<T> {
         this.addOptions = addOptions;
     }
 
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public void setExecutorThreads(int executorThreads) {
+        this.executorThreads = executorThreads;
+    }
+
+    public void setPrefetch(boolean prefetch) {
+        this.prefetch = prefetch;
+    }
+
     private ExecutorService executor;
 
     @Override
@@ -122,6 +137,21 @@ public abstract class JobConfigBase<T> implements JobConfig<T> {
         return executorCount;
     }
 
+    @Override
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    @Override
+    public int getExecutorThreads() {
+        return executorThreads;
+    }
+
+    @Override
+    public boolean isPrefetch() {
+        return prefetch;
+    }
+
     @Override
     public String getHost() {
         return host;
@@ -34,15 +34,20 @@ import com.intuit.karate.http.Response;
 import com.intuit.karate.shell.Command;
 import com.intuit.karate.shell.FileLogAppender;
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.InputStream;
 import java.io.PrintWriter;
 import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  *
@@ -51,7 +56,7 @@ import java.util.concurrent.atomic.AtomicReference;
 public class JobExecutor {
 
     protected final String serverUrl;
-    private final Http http;
+    private final ThreadLocal<Http> http; // not thread-safe, and chunks can run concurrently
     private final Logger logger;
     protected final LogAppender appender;
     private final String workingDir;
@@ -60,8 +65,18 @@ public class JobExecutor {
     private final String executorDir;
     private final Map<String, String> environment;
     private final List<JobCommand> shutdownCommands;
+    private final int batchSize;
+    private final int executorThreads;
+    private final boolean prefetch;
 
-    protected AtomicReference<String> chunkId = new AtomicReference();
+    // more than one when chunks run concurrently, only used for the heartbeat
+    protected final Set<String> runningChunks = ConcurrentHashMap.newKeySet();
+
+    private static final String CACHE_DIR = FileUtils.getBuildDir() + File.separator + "karate-job-cache";
+    private static final int FETCH_BATCH_SIZE = 500;
+    private static final long CACHE_MAX_BYTES = 256 * 1024 * 1024;
+    // the cache dir can be shared by executors that sync at about the same time
+    private static final long CACHE_MIN_AGE_MILLIS = 60 * 60 * 1000;
 
     private JobExecutor(String serverUrl) {
         this.serverUrl = serverUrl;
@@ -73,30 +88,34 @@ public class JobExecutor {
             logger.error("unable to connect to server, aborting");
             System.exit(1);
         }
-        http = Http.to(serverUrl);
-        http.configure("lowerCaseResponseHeaders", "true");
-        // download ============================================================
-        JobMessage download = invokeServer(new JobMessage("download"));
-        logger.info("download response: {}", download);
-        jobId = download.getJobId();
-        executorId = download.getExecutorId();
+        http = ThreadLocal.withInitial(() -> {
+            Http temp = Http.to(serverUrl);
+            temp.configure("lowerCaseResponseHeaders", "true");
+            return temp;
+        });
+        // sync ================================================================
+        JobMessage manifest = invokeServer(new JobMessage("manifest"));
+        jobId = manifest.getJobId();
+        executorId = manifest.getExecutorId();
         workingDir = FileUtils.getBuildDir() + File.separator + jobId + "_" + executorId;
-        byte[] bytes = download.getBytes();
-        File file = new File(workingDir + ".zip");
-        FileUtils.writeToFile(file, bytes);
         environment = new HashMap(System.getenv());
         try {
-            JobUtils.unzip(file, new File(workingDir));
-            logger.info("download done: {}", workingDir);
+            Map<String, String> files = new LinkedHashMap(manifest.get("files"));
+            sync(files);
+            logger.info("sync done: {} files in {}", files.size(), workingDir);
             // init ================================================================
             JobMessage init = invokeServer(new JobMessage("init").put("log", appender.collect()));
             logger.info("init response: {}", init);
             executorDir = workingDir + File.separator + init.get("executorDir");
             List<JobCommand> startupCommands = init.getCommands("startupCommands");
             environment.putAll(init.get("environment"));
-            executeCommands(startupCommands, environment);
+            executeCommands(startupCommands, environment, backgroundCommands, logger);
             shutdownCommands = init.getCommands("shutdownCommands");
-            logger.info("init done, executor dir: {}", executorDir);
+            batchSize = getInt(init, "batchSize");
+            executorThreads = getInt(init, "executorThreads");
+            prefetch = Boolean.TRUE.equals(init.get("prefetch"));
+            logger.info("init done, executor dir: {}, batch size: {}, threads: {}, prefetch: {}",
+                    executorDir, batchSize, executorThreads, prefetch);
         } catch (Exception e) {
             reportErrorAndExit(this, e);
             // we will never reach here because of a System.exit()
@@ -104,6 +123,76 @@ public class JobExecutor {
         }
     }
 
+    // fetch only what is not already in the (content addressed) cache, which
+    // outlives the job, and then build the working dir out of the cache
+    private void sync(Map<String, String> files) throws Exception {
+        File cacheDir = new File(CACHE_DIR);
+        cacheDir.mkdirs();
+        // whole seconds, some file systems don't keep more than that
+        long syncTime = System.currentTimeMillis() / 1000 * 1000;
+        Map<String, String> missing = new HashMap(); // hash to path, no duplicate downloads
+        files.forEach((path, hash) -> {
+            File cached = new File(cacheDir, hash);
+            if (!cached.exists()) {
+                missing.putIfAbsent(hash, path);
+            } else {
+                cached.setLastModified(syncTime); // so that the least recently used are pruned first
+            }
+        });
+        logger.info("files: {}, cached: {}, to fetch: {}", files.size(), files.size() - missing.size(), missing.size());
+        List<String> pending = new ArrayList(missing.values());
+        int count = 0;
+        while (!pending.isEmpty()) {
+            List<String> batch = new ArrayList(pending.subList(0, Math.min(FETCH_BATCH_SIZE, pending.size())));
+            JobMessage req = new JobMessage("files").put("paths", batch);
+            JobMessage res = invokeServer(req);
+            // the server may send fewer (the leading ones) to keep the response small
+            List<String> sent = res.get("paths");
+            if (sent == null || sent.isEmpty()) {
+                sent = batch;
+            }
+            File temp = new File(workingDir + "_" + count + ".zip");
+            FileUtils.writeToFile(temp, res.getBytes());
+            File tempDir = new File(workingDir + "_" + count);
+            JobUtils.unzip(temp, tempDir);
+            for (String path : sent) {
+                File fetched = new File(tempDir, path);
+                // the hash is of what was actually sent, a file can change after the manifest
+                String hash = JobUtils.hash(fetched);
+                files.put(path, hash);
+                File cached = new File(cacheDir, hash);
+                Files.move(fetched.toPath(), cached.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                cached.setLastModified(syncTime); // else it has the time from the zip entry
+            }
+            FileUtils.deleteDirectory(tempDir);
+            temp.delete();
+            pending = new ArrayList(pending.subList(sent.size(), pending.size()));
+            count++;
+        }
+        File root = new File(workingDir);
+        for (Map.Entry<String, String> entry : files.entrySet()) {
+            File cached = new File(cacheDir, entry.getValue());
+            File dest = JobUtils.resolve(root, entry.getKey());
+            dest.getParentFile().mkdirs();
+            if (cached.exists()) {
+                Files.copy(cached.toPath(), dest.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            } else {
+                logger.warn("changed on server during sync, skipped: {}", entry.getKey());
+            }
+        }
+        // else the cache only ever grows, but entries not in this manifest
+        // can still be used by the next job, or by another executor
+        int pruned = JobUtils.pruneBySize(cacheDir, CACHE_MAX_BYTES, syncTime - CACHE_MIN_AGE_MILLIS);
+        if (pruned > 0) {
+            logger.info("removed from cache: {} least recently used files", pruned);
+        }
+    }
+
+    private static int getInt(JobMessage jm, String key) {
+        Number value = jm.get(key);
+        return value == null ? 1 : Math.max(1, value.intValue());
+    }
+
     public static void run(String serverUrl) {
         JobExecutor je = new JobExecutor(serverUrl);
         JobExecutorPulse pulse = new JobExecutorPulse(je);
@@ -130,7 +219,7 @@ public class JobExecutor {
 
     private final List<Command> backgroundCommands = new ArrayList(1);
 
-    private void stopBackgroundCommands() {
+    private void stopBackgroundCommands(List<Command> backgroundCommands) {
         while (!backgroundCommands.isEmpty()) {
             Command command = backgroundCommands.remove(0);
             command.close(false);
@@ -139,54 +228,109 @@ public class JobExecutor {
         }
     }
 
-    private byte[] toBytes(File file) {
+    private JobMessage next() {
+        File executorDirFile = new File(executorDir);
+        executorDirFile.mkdirs();
+        JobMessage req = new JobMessage("next")
+                .put("executorDir", executorDirFile.getAbsolutePath())
+                .put("batchSize", batchSize);
+        return invokeServer(req);
+    }
+
+    private void loopNext() {
+        ExecutorService pool = executorThreads > 1 ? Executors.newFixedThreadPool(executorThreads) : null;
+        ExecutorService fetcher = prefetch ? Executors.newSingleThreadExecutor() : null;
+        try {
+            JobMessage res = next();
+            while (!res.is("stop")) {
+                // ask for the next batch while this one runs, so that the round-trip is hidden
+                CompletableFuture<JobMessage> prefetched = fetcher == null ? null : CompletableFuture.supplyAsync(this::next, fetcher);
+                List<Map<String, Object>> chunks = res.get("chunks");
+                if (pool == null) {
+                    for (Map<String, Object> chunk : chunks) {
+                        executeChunk(chunk);
+                    }
+                } else {
+                    List<CompletableFuture> futures = new ArrayList(chunks.size());
+                    for (Map<String, Object> chunk : chunks) {
+                        futures.add(CompletableFuture.runAsync(() -> executeChunk(chunk), pool));
+                    }
+                    CompletableFuture.allOf(futures.toArray(new CompletableFuture[futures.size()])).join();
+                }
+                res = prefetched == null ? next() : prefetched.join();
+            }
+            logger.info("stop received, shutting down");
+        } finally {
+            if (pool != null) {
+                pool.shutdownNow();
+            }
+            if (fetcher != null) {
+                fetcher.shutdownNow();
+            }
+        }
+    }
+
+    private void executeChunk(Map<String, Object> chunk) {
+        JobMessage res = new JobMessage("next");
+        res.setBody(chunk);
+        String id = res.get("chunkId");
+        runningChunks.add(id);
         try {
-            InputStream is = new FileInputStream(file);
-            return FileUtils.toBytes(is);
-        } catch (Exception e) {
-            throw new RuntimeException(e);
+            executeChunk(res, id);
+        } finally {
+            runningChunks.remove(id);
         }
     }
 
-    private void loopNext() {
-        do {
+    private void executeChunk(JobMessage res, String id) {
+        boolean concurrent = executorThreads > 1;
+        File resultDir;
+        Logger chunkLogger;
+        LogAppender chunkAppender;
+        if (concurrent) { // chunk has its own dir and log, the executor log would mix up chunks
+            resultDir = new File((String) res.get("executorDir"));
+            chunkAppender = new FileLogAppender(new File(resultDir, "karate.log"));
+            chunkLogger = new Logger();
+            chunkLogger.setAppender(chunkAppender);
+        } else {
+            resultDir = new File(executorDir + "_" + id);
+            chunkAppender = appender;
+            chunkLogger = logger;
+        }
+        List<Command> chunkBackgroundCommands = new ArrayList(1);
+        executeCommands(res.getCommands("preCommands"), environment, chunkBackgroundCommands, chunkLogger);
+        executeCommands(res.getCommands("mainCommands"), environment, chunkBackgroundCommands, chunkLogger);
+        stopBackgroundCommands(chunkBackgroundCommands);
+        executeCommands(res.getCommands("postCommands"), environment, chunkBackgroundCommands, chunkLogger);
+        if (concurrent) {
+            chunkAppender.close();
+        } else {
             File executorDirFile = new File(executorDir);
-            executorDirFile.mkdirs();
-            JobMessage req = new JobMessage("next").put("executorDir", executorDirFile.getAbsolutePath());
-            JobMessage res = invokeServer(req);
-            if (res.is("stop")) {
-                logger.info("stop received, shutting down");
-                break;
-            }
-            chunkId.set(res.getChunkId());
-            executeCommands(res.getCommands("preCommands"), environment);
-            executeCommands(res.getCommands("mainCommands"), environment);
-            stopBackgroundCommands();
-            executeCommands(res.getCommands("postCommands"), environment);
-            String log = appender.collect();
             File logFile = new File(executorDir + File.separator + "karate.log");
-            FileUtils.writeToFile(logFile, log);
-            String zipBase = executorDir + "_" + chunkId.get();
-            File toZip = new File(zipBase);
-            if (!executorDirFile.renameTo(toZip)) {
+            FileUtils.writeToFile(logFile, appender.collect());
+            if (!executorDirFile.renameTo(resultDir)) {
                 logger.warn("failed to rename old executor dir: {}", executorDirFile);
             }
-            File toUpload = new File(zipBase + ".zip");
-            JobUtils.zip(toZip, toUpload);
-            byte[] upload = toBytes(toUpload);
-            req = new JobMessage("upload");
-            req.setBytes(upload);
+        }
+        // one file at a time, so that the whole result is never held in memory
+        for (String path : JobUtils.listFiles(resultDir)) {
+            JobMessage req = new JobMessage("uploadFile").put("path", path);
+            req.setChunkId(id);
+            req.setBytes(FileUtils.toBytes(new File(resultDir, path)));
             invokeServer(req);
-        } while (true);
+        }
+        JobMessage req = new JobMessage("upload");
+        req.setChunkId(id);
+        invokeServer(req);
     }
 
     private void shutdown() {
-        stopBackgroundCommands();
-        executeCommands(shutdownCommands, environment);
+        stopBackgroundCommands(backgroundCommands);
+        executeCommands(shutdownCommands, environment, backgroundCommands, logger);
         logger.info("shutdown complete");
     }
 
-    private void executeCommands(List<JobCommand> commands, Map<String, String> environment) {
+    private void executeCommands(List<JobCommand> commands, Map<String, String> environment, List<Command> backgroundCommands, Logger logger) {
         if (commands == null) {
             return;
         }
@@ -222,8 +366,7 @@ public class JobExecutor {
     private JobMessage invokeServer(JobMessage req) {
         req.setJobId(jobId);
         req.setExecutorId(executorId);
-        req.setChunkId(chunkId.get());
-        return invokeServer(http, req);
+        return invokeServer(http.get(), req);
     }
 
     protected static JobMessage invokeServer(Http http, JobMessage req) {
@@ -246,6 +389,9 @@ public class JobExecutor {
         if (req.getChunkId() != null) {
             json.set("chunkId", req.getChunkId());
         }
+        if (req.getBytes() != null && !req.getBody().isEmpty()) {
+            json.set("params", req.getBody());
+        }
         Response res = http.header(JobManager.KARATE_JOB_HEADER, json.toString())
                 .header("content-type", contentType).post(bytes);
         String jobHeader = res.getHeader(JobManager.KARATE_JOB_HEADER);
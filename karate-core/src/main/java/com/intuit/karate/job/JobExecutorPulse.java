@@ -52,7 +52,9 @@ public class JobExecutorPulse extends TimerTask {
         JobMessage jm = new JobMessage("heartbeat");
         jm.setJobId(executor.jobId);
         jm.setExecutorId(executor.executorId);
-        jm.setChunkId(executor.chunkId.get());
+        if (!executor.runningChunks.isEmpty()) {
+            jm.setChunkId(String.join(",", executor.runningChunks));
+        }
         JobExecutor.invokeServer(http, jm);
     }
 
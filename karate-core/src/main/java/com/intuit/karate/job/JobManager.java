@@ -54,9 +54,14 @@ public class JobManager<T> implements ServerHandler {
 
     public static final String KARATE_JOB_HEADER = "karate-job";
 
+    // a 'files' response is built in memory, so a batch is capped by size as well as count
+    private static final long FILES_MAX_BYTES = 32 * 1024 * 1024;
+
     public final JobConfig<T> config;
     private final String basePath;
     private final File ZIP_FILE;
+    private final File sourceDir;
+    private final Map<String, String> manifest;
     public final String jobId;
     public final String jobUrl;
     public final HttpServer server;
@@ -71,8 +76,13 @@ public class JobManager<T> implements ServerHandler {
         jobId = System.currentTimeMillis() + "";
         basePath = FileUtils.getBuildDir() + File.separator + jobId;
         ZIP_FILE = new File(basePath + ".zip");
-        JobUtils.zip(new File(config.getSourcePath()), ZIP_FILE);
-        logger.info("created zip archive: {}", ZIP_FILE);
+        try {
+            sourceDir = new File(config.getSourcePath()).getCanonicalFile();
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+        manifest = JobUtils.manifest(sourceDir);
+        logger.info("created manifest: {} files in {}", manifest.size(), sourceDir);
         server = HttpServer.handler(this).port(config.getPort()).build();
         jobUrl = "http://" + config.getHost() + ":" + server.getPort();
         queue = new LinkedBlockingQueue();
@@ -146,6 +156,9 @@ public class JobManager<T> implements ServerHandler {
         if (res.getChunkId() != null) {
             json.set("chunkId", res.getChunkId());
         }
+        if (res.getBytes() != null && !res.getBody().isEmpty()) {
+            json.set("params", res.getBody());
+        }
         response.setHeader(KARATE_JOB_HEADER, json.toString());
         if (res.getBytes() != null) {
             response.setBody(res.getBytes());
@@ -171,6 +184,10 @@ public class JobManager<T> implements ServerHandler {
         jm.setJobId(json.getOrNull("jobId"));
         jm.setExecutorId(json.getOrNull("executorId"));
         jm.setChunkId(json.getOrNull("chunkId"));
+        Map<String, Object> params = json.getOrNull("params");
+        if (params != null) { // only when the body is binary
+            jm.setBody(params);
+        }
         return jm;
     }
 
@@ -190,6 +207,20 @@ public class JobManager<T> implements ServerHandler {
                 int executorId = executorCounter.getAndIncrement();
                 download.setExecutorId(executorId + "");
                 return download;
+            case "manifest":
+                logger.info("manifest: {}", jm);
+                JobMessage res = new JobMessage("manifest").put("files", manifest);
+                res.setExecutorId(executorCounter.getAndIncrement() + "");
+                return res;
+            case "files":
+                List<String> paths = jm.get("paths");
+                List<String> sent = JobUtils.limitBySize(sourceDir, paths, FILES_MAX_BYTES);
+                logger.info("files: {} - {} requested, {} sent", jm, paths.size(), sent.size());
+                JobMessage files = new JobMessage("files");
+                // the executor asks again for the ones not sent
+                files.put("paths", new ArrayList<String>(sent));
+                files.setBytes(getFiles(sent));
+                return files;
             case "init":
                 logger.info("init: {}", jm);
                 JobMessage init = new JobMessage("init");
@@ -197,25 +228,34 @@ public class JobManager<T> implements ServerHandler {
                 init.put("shutdownCommands", config.getShutdownCommands());
                 init.put("environment", config.getEnvironment());
                 init.put("executorDir", config.getExecutorDir());
+                init.put("batchSize", config.getBatchSize());
+                init.put("executorThreads", config.getExecutorThreads());
+                init.put("prefetch", config.isPrefetch());
                 return init;
             case "next":
                 logger.info("next: {}", jm);
-                JobChunk<T> jc = queue.poll();
-                if (jc == null) {
+                Number requested = jm.get("batchSize");
+                int batchSize = requested == null ? 1 : Math.max(1, requested.intValue());
+                String executorDir = jm.get("executorDir");
+                List<Map<String, Object>> batch = new ArrayList(batchSize);
+                JobChunk<T> jc;
+                while (batch.size() < batchSize && (jc = queue.poll()) != null) {
+                    batch.add(toChunkMessage(jc, jm.getExecutorId(), executorDir));
+                }
+                if (batch.isEmpty()) {
                     logger.info("no more chunks, server responding with 'stop' message");
                     return new JobMessage("stop");
                 }
-                jc.setStartTime(System.currentTimeMillis());
-                jc.setJobId(jobId);
-                jc.setExecutorId(jm.getExecutorId());
-                String executorDir = jm.get("executorDir");
-                jc.setExecutorDir(executorDir);
-                JobMessage next = new JobMessage("next")
-                        .put("preCommands", config.getPreCommands(jc))
-                        .put("mainCommands", config.getMainCommands(jc))
-                        .put("postCommands", config.getPostCommands(jc));
-                next.setChunkId(jc.getId());
+                JobMessage next = new JobMessage("next").put("chunks", batch);
+                if (batch.size() == 1) {
+                    next.setChunkId((String) batch.get(0).get("chunkId"));
+                }
                 return next;
+            case "uploadFile":
+                handleUploadFile(jm.getBytes(), jm.getChunkId(), jm.get("path"));
+                JobMessage uploadFile = new JobMessage("uploadFile");
+                uploadFile.setChunkId(jm.getChunkId());
+                return uploadFile;
             case "upload":
                 logger.info("upload: {}", jm);
                 handleUpload(jm.getBytes(), jm.getChunkId());
@@ -228,7 +268,40 @@ public class JobManager<T> implements ServerHandler {
         }
     }
 
+    private Map<String, Object> toChunkMessage(JobChunk<T> jc, String executorId, String executorDir) {
+        jc.setStartTime(System.currentTimeMillis());
+        jc.setJobId(jobId);
+        jc.setExecutorId(executorId);
+        // when chunks run concurrently on an executor, each needs its own dir
+        if (config.getExecutorThreads() > 1) {
+            executorDir = executorDir + "_" + jc.getId();
+        }
+        jc.setExecutorDir(executorDir);
+        JobMessage chunk = new JobMessage("next")
+                .put("chunkId", jc.getId())
+                .put("executorDir", executorDir)
+                .put("preCommands", config.getPreCommands(jc))
+                .put("mainCommands", config.getMainCommands(jc))
+                .put("postCommands", config.getPostCommands(jc));
+        return chunk.getBody();
+    }
+
+    private byte[] getFiles(List<String> paths) {
+        for (String path : paths) {
+            if (!manifest.containsKey(path)) {
+                throw new RuntimeException("not in manifest: " + path);
+            }
+        }
+        return JobUtils.zip(sourceDir, paths);
+    }
+
     private byte[] getDownload() {
+        synchronized (ZIP_FILE) {
+            if (!ZIP_FILE.exists()) { // only needed by executors that do not use the manifest
+                JobUtils.zip(sourceDir, ZIP_FILE);
+                logger.info("created zip archive: {}", ZIP_FILE);
+            }
+        }
         try {
             InputStream is = new FileInputStream(ZIP_FILE);
             return FileUtils.toBytes(is);
@@ -237,12 +310,29 @@ public class JobManager<T> implements ServerHandler {
         }
     }
 
+    private String getChunkBasePath(String chunkId) {
+        JobChunk<T> jc;
+        synchronized (chunks) {
+            jc = chunks.get(chunkId);
+        }
+        return basePath + File.separator + jc.getExecutorId() + File.separator + chunkId;
+    }
+
+    private void handleUploadFile(byte[] bytes, String chunkId, String path) {
+        try {
+            File file = JobUtils.resolve(new File(getChunkBasePath(chunkId)), path);
+            FileUtils.writeToFile(file, bytes == null ? new byte[0] : bytes); // empty files have no body
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
     private void handleUpload(byte[] bytes, String chunkId) {
         JobChunk<T> jc;
         synchronized (chunks) {
             jc = chunks.get(chunkId);
         }
-        String chunkBasePath = basePath + File.separator + jc.getExecutorId() + File.separator + chunkId;
+        String chunkBasePath = getChunkBasePath(chunkId);
         File upload = new File(chunkBasePath);
         File zipFile = new File(chunkBasePath + ".zip");
         if (bytes != null) {
@@ -23,10 +23,20 @@
  */
 package com.intuit.karate.job;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.function.Predicate;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
@@ -84,6 +94,131 @@ public class JobUtils {
         fis.close();
     }
 
+    // same rules as zip()
+    private static boolean isExcluded(File file) {
+        String name = file.getName();
+        return file.isHidden() || name.equals("target") || name.equals("build");
+    }
+
+    // relative paths ('/' separated) of the files that zip() would include
+    public static List<String> listFiles(File root) {
+        List<String> list = new ArrayList();
+        File[] children = root.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                listFiles(child, child.getName(), list);
+            }
+        }
+        return list;
+    }
+
+    private static void listFiles(File file, String path, List<String> list) {
+        if (isExcluded(file)) {
+            return;
+        }
+        if (file.isDirectory()) {
+            File[] children = file.listFiles();
+            if (children != null) {
+                for (File child : children) {
+                    listFiles(child, path + "/" + child.getName(), list);
+                }
+            }
+        } else {
+            list.add(path);
+        }
+    }
+
+    public static String hash(File file) {
+        try (InputStream is = new FileInputStream(file)) {
+            MessageDigest md = MessageDigest.getInstance("SHA-1");
+            byte[] buffer = new byte[8192];
+            int length;
+            while ((length = is.read(buffer)) != -1) {
+                md.update(buffer, 0, length);
+            }
+            StringBuilder sb = new StringBuilder();
+            for (byte b : md.digest()) {
+                sb.append(String.format("%02x", b));
+            }
+            return sb.toString();
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    // relative path to content hash, for all the files that zip() would include
+    public static Map<String, String> manifest(File root) {
+        List<String> paths = listFiles(root);
+        Map<String, String> map = new LinkedHashMap(paths.size());
+        for (String path : paths) {
+            map.put(path, hash(new File(root, path)));
+        }
+        return map;
+    }
+
+    // the leading paths whose files add up to at most max bytes, but always at least one
+    public static List<String> limitBySize(File root, List<String> paths, long maxBytes) {
+        long total = 0;
+        for (int i = 0; i < paths.size(); i++) {
+            total += new File(root, paths.get(i)).length();
+            if (total > maxBytes && i > 0) {
+                return paths.subList(0, i);
+            }
+        }
+        return paths;
+    }
+
+    // least recently used first, until the files in the dir add up to at most max bytes
+    // a file modified at or after keepAfter is never deleted, it may be in use
+    public static int pruneBySize(File dir, long maxBytes, long keepAfter) {
+        File[] files = dir.listFiles();
+        if (files == null) {
+            return 0;
+        }
+        long total = 0;
+        for (File file : files) {
+            total += file.length();
+        }
+        if (total <= maxBytes) {
+            return 0;
+        }
+        Arrays.sort(files, Comparator.comparingLong(File::lastModified));
+        int pruned = 0;
+        for (File file : files) {
+            if (total <= maxBytes || file.lastModified() >= keepAfter) {
+                break;
+            }
+            long length = file.length();
+            if (file.delete()) {
+                total -= length;
+                pruned++;
+            }
+        }
+        return pruned;
+    }
+
+    public static byte[] zip(File root, Collection<String> paths) {
+        try {
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            ZipOutputStream zipOut = new ZipOutputStream(baos);
+            byte[] buffer = new byte[8192];
+            for (String path : paths) {
+                zipOut.putNextEntry(new ZipEntry(path));
+                try (InputStream is = new FileInputStream(new File(root, path))) {
+                    int length;
+                    while ((length = is.read(buffer)) >= 0) {
+                        zipOut.write(buffer, 0, length);
+                    }
+                }
+                zipOut.closeEntry();
+            }
+            zipOut.close();
+            return baos.toByteArray();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
     public static void unzip(File src, File dest) {
         try {
             byte[] buffer = new byte[1024];
@@ -115,11 +250,15 @@ public class JobUtils {
     }
 
     private static File createFile(File destinationDir, ZipEntry zipEntry) throws IOException {
-        File destFile = new File(destinationDir, zipEntry.getName());
-        String destDirPath = destinationDir.getCanonicalPath();
+        return resolve(destinationDir, zipEntry.getName());
+    }
+
+    public static File resolve(File parent, String path) throws IOException {
+        File destFile = new File(parent, path);
+        String destDirPath = parent.getCanonicalPath();
         String destFilePath = destFile.getCanonicalPath();
         if (!destFilePath.startsWith(destDirPath)) {
-            throw new IOException("entry outside target dir: " + zipEntry.getName());
+            throw new IOException("entry outside target dir: " + path);
         }
         return destFile;
     }
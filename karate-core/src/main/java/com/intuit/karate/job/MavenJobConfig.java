@@ -55,8 +55,12 @@ public class MavenJobConfig extends JobConfigBase<ScenarioRuntime> {
         Scenario scenario = chunk.getValue().scenario;
         String path = scenario.getFeature().getResource().getPrefixedPath();
         int line = scenario.getLine();
+        String args = path + ":" + line;
+        if (getExecutorThreads() > 1) { // concurrent chunks must not share the output dir
+            args = args + " -o " + chunk.getExecutorDir();
+        }
         String temp = "mvn exec:java -Dexec.mainClass=com.intuit.karate.Main -Dexec.classpathScope=test"
-                + " \"-Dexec.args=" + path + ":" + line + "\"";
+                + " \"-Dexec.args=" + args + "\"";
         for (String k : sysPropKeys) {
             String v = StringUtils.trimToEmpty(System.getProperty(k));
             if (!v.isEmpty()) {
@@ -69,7 +73,11 @@ public class MavenJobConfig extends JobConfigBase<ScenarioRuntime> {
     @Override
     public ScenarioRuntime handleUpload(JobChunk<ScenarioRuntime> chunk, File upload) {
         ScenarioRuntime runtime = chunk.getValue();
-        File jsonFile = JobUtils.getFirstFileMatching(upload, n -> n.endsWith(Constants.KARATE_JSON_SUFFIX));
+        File resultDir = new File(upload, Constants.KARATE_REPORTS);
+        if (!resultDir.isDirectory()) { // else the chunk used its own output dir
+            resultDir = upload;
+        }
+        File jsonFile = JobUtils.getFirstFileMatching(resultDir, n -> n.endsWith(Constants.KARATE_JSON_SUFFIX));
         if (jsonFile == null) {
             logger.warn("no karate json found in job executor result");
             return runtime;
@@ -88,8 +96,14 @@ public class MavenJobConfig extends JobConfigBase<ScenarioRuntime> {
         }
         ScenarioResult sr = optional.get();
         sr.setExecutorName(chunk.getExecutorId());
-        sr.setStartTime(chunk.getStartTime());
-        sr.setEndTime(System.currentTimeMillis());
+        // a batched or prefetched chunk may have waited on the executor before it started
+        long endTime = System.currentTimeMillis();
+        long startTime = chunk.getStartTime();
+        if (sr.getStartTime() > 0 && sr.getEndTime() > sr.getStartTime()) {
+            startTime = Math.max(startTime, endTime - (sr.getEndTime() - sr.getStartTime()));
+        }
+        sr.setStartTime(startTime);
+        sr.setEndTime(endTime);
         synchronized (runtime.featureRuntime) {
             runtime.featureRuntime.result.addResult(sr);
         }
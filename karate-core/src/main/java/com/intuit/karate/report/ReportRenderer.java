@@ -0,0 +1,108 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2021 Intuit Inc.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.intuit.karate.report;
+
+import com.intuit.karate.FileUtils;
+import com.intuit.karate.template.KarateTemplateEngine;
+import com.intuit.karate.template.TemplateUtils;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * suite-scoped, re-uses one template engine per resource root so that the
+ * templates are parsed only once, copies the static resources once per report
+ * dir, and can render on a background thread so that (per-feature) reports
+ * are not on the critical path of test execution
+ *
+ * @author pthomas3
+ */
+public class ReportRenderer {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReportRenderer.class);
+
+    private final Map<String, KarateTemplateEngine> engines = new ConcurrentHashMap();
+    private final Set<String> initializedDirs = ConcurrentHashMap.newKeySet();
+    private final List<CompletableFuture> pending = new ArrayList();
+    private ExecutorService executor;
+
+    public File render(Report report) {
+        KarateTemplateEngine engine = engines.computeIfAbsent(report.getResourceRoot(), root -> TemplateUtils.forResourceRoot(null, root));
+        String html = engine.process(report.getTemplate(), report.getJsEngine());
+        String reportDir = report.getReportDir();
+        if (initializedDirs.add(reportDir)) {
+            ReportUtils.initStaticResources(reportDir);
+        }
+        File file = new File(reportDir + File.separator + report.getReportFileName());
+        FileUtils.writeToFile(file, html);
+        return file;
+    }
+
+    // the report is also built in the background, since that is where the results are converted to json
+    public synchronized void submit(Supplier<Report> supplier) {
+        if (executor == null) {
+            executor = Executors.newSingleThreadExecutor(r -> {
+                Thread thread = new Thread(r, "karate-report-renderer");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        pending.add(CompletableFuture.runAsync(() -> {
+            try {
+                render(supplier.get());
+            } catch (Exception e) {
+                logger.error("report rendering failed: {}", e + "");
+            }
+        }, executor));
+    }
+
+    public void waitForPending() {
+        CompletableFuture[] futures;
+        synchronized (this) {
+            futures = pending.toArray(new CompletableFuture[pending.size()]);
+            pending.clear();
+        }
+        CompletableFuture.allOf(futures).join();
+    }
+
+    public void close() {
+        waitForPending();
+        synchronized (this) {
+            if (executor != null) {
+                executor.shutdown();
+                executor = null;
+            }
+        }
+    }
+
+}
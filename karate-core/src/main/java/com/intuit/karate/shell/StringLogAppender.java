@@ -24,44 +24,177 @@
 package com.intuit.karate.shell;
 
 import com.intuit.karate.LogAppender;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  *
  * @author pthomas3
  */
 public class StringLogAppender implements LogAppender {
-    
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(StringLogAppender.class);
+
     private final StringBuilder sb = new StringBuilder();
-    
+
     private final boolean useLineFeed;
-    
+
+    // only used when capped
+    private final File spillFile;
+    private final StringBuilder tail = new StringBuilder();
+    private int headRemaining;
+    private int tailChars; // per collect
+    private long truncated; // since the last collect
+    private Writer spillWriter;
+    private boolean spillFailed;
+
     public StringLogAppender(boolean useLineFeed) {
+        this(useLineFeed, 0, null);
+    }
+
+    /**
+     * three-quarters of max-chars is kept as the head of the log over the life
+     * of this appender (a scenario), once the head has filled up each collect
+     * (a step) still gets the last quarter of max-chars of what was logged
+     * since the previous collect, with a marker for what was cut, and
+     * everything that did not fit is written to the spill file if not null
+     *
+     * @param useLineFeed append a line-feed after each append
+     * @param maxChars zero or less for no limit
+     * @param spillFile created only if needed, can be null
+     */
+    public StringLogAppender(boolean useLineFeed, int maxChars, File spillFile) {
         this.useLineFeed = useLineFeed;
+        if (maxChars > 0) {
+            tailChars = maxChars / 4;
+            headRemaining = maxChars - tailChars;
+        } else {
+            headRemaining = -1;
+        }
+        this.spillFile = spillFile;
     }
-    
+
+    public File getSpillFile() {
+        return spillWriter == null ? null : spillFile;
+    }
+
+    private String getBuffer(boolean reset) {
+        if (truncated == 0) {
+            String temp = sb.toString();
+            if (reset) {
+                sb.setLength(0);
+            }
+            return temp;
+        }
+        int tailLength = Math.min(tail.length(), tailChars);
+        StringBuilder temp = new StringBuilder(sb.length() + tailLength + 128);
+        temp.append(sb);
+        long omitted = truncated - tailLength;
+        if (omitted > 0) {
+            temp.append("\n... [").append(omitted).append(" characters truncated");
+            if (spillWriter != null) {
+                temp.append(", see: ").append(spillFile.getPath());
+            }
+            temp.append("] ...\n");
+        }
+        temp.append(tail, tail.length() - tailLength, tail.length());
+        if (reset) {
+            sb.setLength(0);
+            tail.setLength(0);
+            truncated = 0;
+            flushSpill();
+        }
+        return temp.toString();
+    }
+
     @Override
     public String getBuffer() {
-        return sb.toString();
-    }    
-    
+        return getBuffer(false);
+    }
+
     @Override
     public String collect() {
-        String temp = sb.toString();
-        sb.setLength(0);
-        return temp;
+        return getBuffer(true);
     }
-    
+
     @Override
     public void append(String text) {
-        sb.append(text);
+        if (headRemaining == -1) {
+            sb.append(text);
+            if (useLineFeed) {
+                sb.append('\n');
+            }
+            return;
+        }
         if (useLineFeed) {
-            sb.append('\n');
+            text = text + '\n';
+        }
+        int length = text.length();
+        if (length <= headRemaining) {
+            sb.append(text);
+            headRemaining -= length;
+            return;
+        }
+        int keep = headRemaining;
+        sb.append(text, 0, keep);
+        headRemaining = 0;
+        spill(text, keep);
+        truncated += length - keep;
+        if (tailChars > 0) {
+            tail.append(text, Math.max(keep, length - tailChars), length);
+            if (tail.length() > tailChars * 2) { // trim only once in a while
+                tail.delete(0, tail.length() - tailChars);
+            }
+        }
+    }
+
+    private void spill(String text, int from) {
+        if (spillFile == null || spillFailed) {
+            return;
+        }
+        try {
+            if (spillWriter == null) {
+                File parent = spillFile.getAbsoluteFile().getParentFile();
+                if (!parent.exists()) {
+                    parent.mkdirs();
+                }
+                spillWriter = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(spillFile), StandardCharsets.UTF_8));
+            }
+            spillWriter.write(text, from, text.length() - from);
+        } catch (Exception e) {
+            spillFailed = true; // the log is truncated anyway, don't fail the test for this
+            LOGGER.warn("log spill to file failed: {} - {}", spillFile, e.getMessage());
+        }
+    }
+
+    private void flushSpill() {
+        if (spillWriter != null && !spillFailed) {
+            try {
+                spillWriter.flush();
+            } catch (Exception e) {
+                spillFailed = true;
+                LOGGER.warn("log spill to file failed: {} - {}", spillFile, e.getMessage());
+            }
         }
     }
-    
+
     @Override
     public void close() {
         // don't dispose of buffer it can be collected later
-    }    
-    
+        if (spillWriter != null) {
+            try {
+                spillWriter.close();
+            } catch (Exception e) {
+                LOGGER.warn("log spill file close failed: {}", e.getMessage());
+            }
+            spillFailed = true; // no more writes
+        }
+    }
+
 }
@@ -30,6 +30,7 @@ import com.intuit.karate.http.ServerConfig;
 import com.intuit.karate.http.ServerContext;
 import java.io.IOException;
 import java.io.Writer;
+import java.util.Locale;
 import java.util.Map;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -64,12 +65,16 @@ public class KarateTemplateEngine {
         wrapped = new TemplateEngine();
         wrapped.setEngineContextFactory((IEngineConfiguration ec, TemplateData data, Map<String, Object> attrs, IContext context) -> {
             IEngineContext engineContext = standardFactory.createEngineContext(ec, data, attrs, context);
-            if (je == null) {
+            JsEngine current = context instanceof TemplateContext ? ((TemplateContext) context).getJsEngine() : null;
+            if (current == null) {
+                current = je;
+            }
+            if (current == null) {
                 return KarateEngineContext.initThreadLocal(engineContext, RequestCycle.get().getEngine());
-            } else {                
+            } else {
                 ServerContext sc = new ServerContext(config, null);
-                je.put(RequestCycle.CONTEXT, sc); // TODO improve
-                return KarateEngineContext.initThreadLocal(engineContext, je);
+                current.put(RequestCycle.CONTEXT, sc); // TODO improve
+                return KarateEngineContext.initThreadLocal(engineContext, current);
             }
 
         });
@@ -92,6 +97,10 @@ public class KarateTemplateEngine {
         return process(template, TemplateContext.LOCALE_US);
     }
 
+    public String process(String template, JsEngine je) {
+        return process(template, new TemplateContext(Locale.US, je));
+    }
+
     public String process(String template, IContext context) {
         TemplateSpec templateSpec = new TemplateSpec(template, TemplateMode.HTML);
         Writer stringWriter = new FastStringWriter(100);
@@ -23,6 +23,7 @@
  */
 package com.intuit.karate.template;
 
+import com.intuit.karate.graal.JsEngine;
 import java.util.Collections;
 import java.util.Locale;
 import java.util.Set;
@@ -41,9 +42,20 @@ public class TemplateContext implements IContext {
     public static final TemplateContext LOCALE_US = new TemplateContext(Locale.US);
 
     private final Locale locale;
+    private final JsEngine jsEngine;
 
     public TemplateContext(Locale locale) {
+        this(locale, null);
+    }
+
+    // so that one template engine can be re-used with a different js engine per call
+    public TemplateContext(Locale locale, JsEngine jsEngine) {
         this.locale = locale;
+        this.jsEngine = jsEngine;
+    }
+
+    public JsEngine getJsEngine() {
+        return jsEngine;
     }
 
     @Override
@@ -0,0 +1,62 @@
+package com.intuit.karate;
+
+import com.jayway.jsonpath.DocumentContext;
+import com.jayway.jsonpath.JsonPath;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * reads a json-path via Json.get() (cached, and walked directly when simple)
+ * versus jayway reading the path string, the deep-scan path is never simple
+ *
+ * mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.intuit.karate.JsonPathBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonPathBenchmark {
+
+    @Param({"$.a.b[1].c", "$..c"})
+    String path;
+
+    Json json;
+    DocumentContext doc;
+
+    @Setup
+    public void setup() {
+        String text = "{ a: { b: [{ c: 1 }, { c: 2 }], d: 'foo' } }";
+        json = Json.of(text);
+        doc = JsonPath.parse(Json.of(text).asMap());
+    }
+
+    @Benchmark
+    public Object karate() {
+        return json.get(path);
+    }
+
+    @Benchmark
+    public Object jayway() {
+        return doc.read(path);
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder().include(JsonPathBenchmark.class.getSimpleName()).build()).run();
+    }
+
+}
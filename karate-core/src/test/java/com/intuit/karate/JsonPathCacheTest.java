@@ -0,0 +1,66 @@
+package com.intuit.karate;
+
+import com.jayway.jsonpath.DocumentContext;
+import com.jayway.jsonpath.JsonPath;
+import com.jayway.jsonpath.PathNotFoundException;
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @author pthomas3
+ */
+class JsonPathCacheTest {
+
+    static final String JSON = "{ a: { b: [{ c: 1 }, { c: null }], 'd-e': 'x', 'f g': [[1, 2]] }, n: null }";
+
+    @Test
+    void testParse() {
+        assertEquals(Arrays.asList(), Arrays.asList(JsonPathCache.parse("$")));
+        assertEquals(Arrays.asList("a", "b", 0, "c"), Arrays.asList(JsonPathCache.parse("$.a.b[0].c")));
+        assertEquals(Arrays.asList("a", "f g", 0, 1), Arrays.asList(JsonPathCache.parse("$.a['f g'][0][1]")));
+        assertEquals(Arrays.asList(0), Arrays.asList(JsonPathCache.parse("$[0]")));
+        assertNull(JsonPathCache.parse("$..c"));
+        assertNull(JsonPathCache.parse("$.a.*"));
+        assertNull(JsonPathCache.parse("$.a.b[-1]"));
+        assertNull(JsonPathCache.parse("$.a.b[0:1]"));
+        assertNull(JsonPathCache.parse("$.a.b[?(@.c == 1)]"));
+        assertNull(JsonPathCache.parse("$.a.b.length()"));
+        assertNull(JsonPathCache.parse("$['a','n']"));
+        assertNull(JsonPathCache.parse("a.b"));
+    }
+
+    @Test
+    void testSameAsJayway() {
+        String[] paths = {"$", "$.a", "$.a.b", "$.a.b[0]", "$.a.b[0].c", "$.a.b[1].c", "$.a.b[2]", "$.a.b[0].x",
+            "$.a.x.y", "$.a['d-e']", "$.a.d-e", "$.a['f g'][0][1]", "$.n", "$.n.x", "$.a.b.c", "$.a[0]", "$[0]",
+            "$.a.b[-1].c", "$..c", "$.a.b[*].c"};
+        DocumentContext doc = JsonPath.parse(Json.of(JSON).asMap());
+        for (String path : paths) {
+            Object expected;
+            try {
+                expected = doc.read(path);
+            } catch (PathNotFoundException e) {
+                expected = PathNotFoundException.class;
+            }
+            Object actual;
+            try {
+                actual = JsonPathCache.read(doc, path);
+            } catch (PathNotFoundException e) {
+                actual = PathNotFoundException.class;
+            }
+            assertEquals(expected, actual, path);
+        }
+    }
+
+    @Test
+    void testBounded() {
+        JsonPathCache.clear();
+        for (int i = 0; i < 2000; i++) {
+            JsonPathCache.compile("$.a" + i);
+        }
+        assertTrue(JsonPathCache.size() <= 1024);
+    }
+
+}
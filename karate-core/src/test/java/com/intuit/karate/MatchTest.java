@@ -165,6 +165,44 @@ class MatchTest {
         message("actual array does not contain expected item - baz");
     }
     
+    @Test
+    void testListContainsNumbersAndNesting() {
+        match("[1, 2.0, -0.0]", CONTAINS, "[2, 1.0, 0]");
+        match("[1, 2, 3]", CONTAINS_ONLY, "[3.0, 2, 1]");
+        match("[1, 2, 3]", CONTAINS, "['1']", FAILS);
+        match("[null, true, 'a']", CONTAINS, "[null, true]");
+        match("[null, true, 'a']", CONTAINS, "[false]", FAILS);
+        match("[{ a: [1, { b: 2 }] }, { c: 3 }]", CONTAINS, "[{ a: [1, { b: 2.0 }] }]");
+        match("[{ a: [1, { b: 2 }] }, { c: 3 }]", CONTAINS, "[{ a: [{ b: 2 }, 1] }]", FAILS);
+        match("[{ a: 1, b: 2 }]", CONTAINS, "[{ a: 1 }]", FAILS);
+        match("[{ a: 1 }]", CONTAINS, "[{ a: 1, b: null }]", FAILS);
+        match("[{ a: 1, b: 2 }]", CONTAINS, "[{ a: 1, b: '#number' }]");
+        match("[{ a: 1, b: 2 }]", CONTAINS, "[{ a: 1, b: '##string' }]", FAILS);
+        match("['#foo']", CONTAINS, "['#foo']");
+        match("[1, 2, 3]", NOT_CONTAINS, "[1, 4]");
+        match("[1, 2, 3]", NOT_CONTAINS, "[3, 1]", FAILS);
+        message("actual contains expected");
+    }
+
+    @Test
+    void testListContainsLarge() {
+        StringBuilder actual = new StringBuilder("[");
+        StringBuilder expected = new StringBuilder("[");
+        for (int i = 0; i < 5000; i++) {
+            if (i > 0) {
+                actual.append(',');
+                expected.append(',');
+            }
+            actual.append("{ id: ").append(i).append(", tags: ['t").append(i % 7).append("'] }");
+            expected.append("{ tags: ['t").append((4999 - i) % 7).append("'], id: ").append(4999 - i).append(" }");
+        }
+        match(actual + "]", CONTAINS_ONLY, expected + "]");
+        match(actual + "]", CONTAINS_ANY, "[{ id: 4999, tags: ['t1'] }, { id: -1 }]");
+        match(actual + "]", NOT_CONTAINS, "[{ id: 5000, tags: ['t2'] }]");
+        match(actual + "]", CONTAINS, "[{ id: 1, tags: ['t1'] }, { id: 2, tags: ['t3'] }]", FAILS);
+        message("actual array does not contain expected item - {\"id\":2,\"tags\":[\"t3\"]}");
+    }
+
     @Test
     void testListContainsRegex() {
         match("['foo', 'bar']", CONTAINS, "#regex .{3}");
@@ -191,6 +229,30 @@ class MatchTest {
         match("[{ a: 1 }, { a: 2 }]", EACH_EQUALS, "{ a: '#number' }");
     }
 
+    @Test
+    void testMacroParsedOnce() {
+        MatchMacro macro = MatchMacro.get("##[_ > 1] #number? _ > 0");
+        assertSame(macro, MatchMacro.get("##[_ > 1] #number? _ > 0"));
+        assertTrue(macro.optional);
+        assertEquals(MatchMacro.Kind.ARRAY, macro.kind);
+        assertEquals("#number? _ > 0", macro.eachMacro);
+        macro = MatchMacro.get("#regex a?b");
+        assertEquals(MatchMacro.Kind.VALIDATOR, macro.kind);
+        assertNull(macro.function);
+        macro = MatchMacro.get("#(^foo)");
+        assertEquals(MatchMacro.Kind.EXPRESSION, macro.kind);
+        assertEquals(CONTAINS, macro.nestedType);
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 1; i <= 1000; i++) {
+            sb.append(i == 1 ? "" : ",").append("{ a: ").append(i).append(", b: 'x").append(i).append("' }");
+        }
+        String list = sb.append("]").toString();
+        match(list, EACH_EQUALS, "{ a: '#number? _ > 0 && _ <= $.length', b: '#regex x[0-9]+' }");
+        match(list, EQUALS, "#[1000] { a: '#? _ > 0', b: '#string' }");
+        match(list, EACH_EQUALS, "{ a: '#? _ < 1000', b: '#string' }", FAILS);
+        message("match each failed at index 999");
+    }
+
     @Test
     void testEachWithMagicVariables() {
         match("[{a: 1, b: 2}, {a: 2, b: 4}]", EACH_EQUALS, "{ a: '#number', b: '#(_$.a * 2)' }");
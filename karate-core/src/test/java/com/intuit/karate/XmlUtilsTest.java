@@ -1,8 +1,12 @@
 package com.intuit.karate;
 
+import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import static org.junit.jupiter.api.Assertions.*;
 import org.junit.jupiter.api.Test;
 import org.slf4j.Logger;
@@ -247,4 +251,46 @@ class XmlUtilsTest {
         assertEquals("/bar/baz/@ban", XmlUtils.stripNameSpacePrefixes("/foo:bar/foo:baz/@ban"));
     }
 
+    @Test
+    void testConcurrentParseXpathAndToString() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<String>> futures = new ArrayList();
+        for (int i = 0; i < 100; i++) {
+            int index = i;
+            futures.add(executor.submit(() -> {
+                Document doc = XmlUtils.toXmlDoc("<foo><bar>" + index + "</bar></foo>");
+                // the same (cached) xpath, on every thread and document
+                String value = XmlUtils.getTextValueByPath(doc, "/foo/bar");
+                return value + ":" + XmlUtils.toString(doc);
+            }));
+        }
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i + ":<foo><bar>" + i + "</bar></foo>", futures.get(i).get());
+        }
+        executor.shutdown();
+    }
+
+    @Test
+    void testShortLivedThreadsShareXpathPool() throws Exception {
+        // like virtual threads, a new thread for every task
+        List<Thread> threads = new ArrayList();
+        List<String> results = java.util.Collections.synchronizedList(new ArrayList());
+        for (int i = 0; i < 50; i++) {
+            int index = i;
+            Thread thread = new Thread(() -> {
+                Document doc = XmlUtils.toXmlDoc("<foo><bar>" + index + "</bar></foo>");
+                results.add(XmlUtils.getTextValueByPath(doc, "/foo/bar") + ":" + XmlUtils.getNodeListByPath(doc, "/foo/bar").getLength());
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(50, results.size());
+        for (int i = 0; i < 50; i++) {
+            assertTrue(results.contains(i + ":1"));
+        }
+    }
+
 }
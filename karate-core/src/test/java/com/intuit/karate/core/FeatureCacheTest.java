@@ -0,0 +1,54 @@
+package com.intuit.karate.core;
+
+import com.intuit.karate.FileUtils;
+import com.intuit.karate.Results;
+import com.intuit.karate.Runner;
+import com.intuit.karate.resource.FileResource;
+import com.intuit.karate.resource.Resource;
+import java.io.File;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @author pthomas3
+ */
+class FeatureCacheTest {
+
+    @Test
+    void testHitMissAndReload() {
+        File file = new File("target/feature-cache/cached.feature");
+        FileUtils.writeToFile(file, "Feature:\nScenario:\n* def a = 1\n");
+        Resource resource = new FileResource(file);
+        FeatureCache cache = new FeatureCache();
+        Feature first = cache.read(resource, null);
+        assertSame(first, cache.read(resource, null));
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        // the call tag lives on the feature, so it is a separate entry
+        Feature tagged = cache.read(resource, "@foo");
+        assertNotSame(first, tagged);
+        assertEquals("@foo", tagged.getCallTag());
+        assertNull(first.getCallTag());
+        // a changed file is re-parsed
+        FileUtils.writeToFile(file, "Feature:\nScenario:\n* def a = 1\n* def b = 2\n");
+        Feature changed = cache.read(resource, null);
+        assertNotSame(first, changed);
+        assertEquals(2, changed.getSection(0).getScenario().getSteps().size());
+        // keyed on the prefixed path, and only this feature is invalidated
+        File other = new File("target/feature-cache/cached.feature.bak");
+        FileUtils.writeToFile(other, "Feature:\nScenario:\n* def a = 1\n");
+        cache.read(new FileResource(other), null);
+        assertEquals(3, cache.size());
+        cache.invalidate(resource);
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void testEvaluatedScenarioNameNotShared() {
+        // the called feature is parsed once, but each call evaluates its own name
+        Results results = Runner.path("classpath:com/intuit/karate/core/feature-cache-caller.feature").parallel(1);
+        assertEquals(0, results.getFailCount(), results.getErrorMessages());
+    }
+
+}
@@ -2,7 +2,11 @@ package com.intuit.karate.core;
 
 import static com.intuit.karate.TestUtils.*;
 import static com.intuit.karate.TestUtils.runScenario;
+import com.intuit.karate.http.HttpClient;
+import com.intuit.karate.http.HttpClientFactory;
+import com.intuit.karate.http.HttpRequestBuilder;
 import com.intuit.karate.http.HttpServer;
+import com.intuit.karate.http.Response;
 import java.util.List;
 import java.util.Map;
 import org.junit.jupiter.api.AfterEach;
@@ -74,6 +78,49 @@ class KarateHttpMockHandlerTest {
         matchVar("response", "hello world");
     }
 
+    @Test
+    void testSimpleGetWithArmeriaClientFactory() {
+        background().scenario(
+                "pathMatches('/hello')",
+                "def response = 'hello ' + requestHeaders['x-name'][0]");
+        startMockServer();
+        runtime = runScenario(HttpClientFactory.ARMERIA,
+                urlStep(),
+                "path 'hello'",
+                "header x-name = 'world'",
+                "method get",
+                "match responseStatus == 200"
+        );
+        matchVar("response", "hello world");
+    }
+
+    @Test
+    void testPooledConnectionsAfterReadTimeout() {
+        background().scenario(
+                "pathMatches('/slow')",
+                "def responseDelay = 1000",
+                "def response = 'slow'").scenario(
+                "pathMatches('/hello')",
+                "def response = 'hello'");
+        startMockServer();
+        run(
+                "configure connectionPool = { maxTotal: 1, maxPerRoute: 1 }",
+                "configure readTimeout = 200",
+                urlStep(),
+                "path 'hello'",
+                "method get"
+        );
+        matchVar("response", "hello");
+        // same suite and config, so the same (single connection) pool
+        HttpClient client = HttpClientFactory.DEFAULT.create(runtime.engine);
+        String url = "http://localhost:" + server.getPort();
+        assertThrows(RuntimeException.class, () -> new HttpRequestBuilder(client).url(url).path("slow").invoke("get"));
+        for (int i = 0; i < 3; i++) {
+            Response response = new HttpRequestBuilder(client).url(url).path("hello").invoke("get");
+            assertEquals("hello", response.getBodyAsString());
+        }
+    }
+
     @Test
     void testUrlWithTrailingSlashAndPath() {
         background().scenario(
@@ -0,0 +1,68 @@
+package com.intuit.karate.core;
+
+import com.intuit.karate.TestUtils.FeatureBuilder;
+import com.intuit.karate.http.HttpRequestBuilder;
+import com.intuit.karate.http.Request;
+import com.intuit.karate.http.Response;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * routes a request to the last of 300 mock scenarios, where the scenario
+ * expressions are either compiled into the route trie or have to be evaluated
+ * as js (the suffix "&& true" defeats the compiler)
+ *
+ * mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.intuit.karate.core.MockHandlerBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MockHandlerBenchmark {
+
+    static final int COUNT = 300;
+
+    @Param({"", " && true"})
+    String suffix;
+
+    MockHandler handler;
+    DummyClient client;
+    String path;
+
+    @Setup
+    public void setup() {
+        FeatureBuilder fb = FeatureBuilder.background();
+        for (int i = 0; i < COUNT; i++) {
+            fb.scenario("pathMatches('/items" + i + "/{id}') && methodIs('get')" + suffix, "def response = pathParams.id");
+        }
+        handler = new MockHandler(fb.build());
+        client = new DummyClient();
+        path = "/items" + (COUNT - 1) + "/42";
+    }
+
+    @Benchmark
+    public Response route() {
+        Request req = new HttpRequestBuilder(client).method("GET").path(path).build().toRequest();
+        return handler.handle(req);
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder().include(MockHandlerBenchmark.class.getSimpleName()).build()).run();
+    }
+
+}
@@ -4,6 +4,12 @@ import static com.intuit.karate.TestUtils.*;
 import com.intuit.karate.http.HttpClient;
 import com.intuit.karate.http.HttpRequestBuilder;
 import com.intuit.karate.http.Response;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import static org.junit.jupiter.api.Assertions.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.slf4j.Logger;
@@ -34,7 +40,11 @@ class MockHandlerTest {
     }
 
     private Response handle() {
-        handler = new MockHandler(feature.build());
+        return handle(new MockHandler(feature.build()));
+    }
+
+    private Response handle(MockHandler mh) {
+        handler = mh;
         response = handler.handle(request.build().toRequest());
         request = new HttpRequestBuilder(client).method("GET");
         return response;
@@ -51,6 +61,166 @@ class MockHandlerTest {
         match(response.getBodyAsString(), "hello world");
     }
 
+    @Test
+    void testJsEnginePoolReusedAcrossRequests() {
+        background().scenario(
+                "pathMatches('/hello')",
+                "def temp = typeof leaked",
+                "eval leaked = 1",
+                "def response = temp"
+        );
+        handler = new MockHandler(feature.build()).withJsEnginePool(1);
+        for (int i = 0; i < 3; i++) {
+            request.path("/hello");
+            response = handler.handle(request.build().toRequest());
+            match(response.getBodyAsString(), "undefined");
+            request = new HttpRequestBuilder(client).method("GET");
+        }
+    }
+
+    @Test
+    void testConcurrentRequestsKeepAllGlobalUpdates() throws Exception {
+        background("def shared = { nested: [1, 2, 3] }").scenario(
+                "pathMatches('/put/{id}')",
+                "def id = pathParams.id",
+                "eval shared.nested.push(id)",
+                "eval karate.set('item_' + id, id)",
+                "def response = id"
+        ).scenario(
+                "pathMatches('/get/{id}')",
+                "def response = karate.get('item_' + pathParams.id)"
+        ).scenario(
+                "pathMatches('/shared')",
+                "def response = shared.nested.length"
+        );
+        handler = new MockHandler(feature.build()).withConcurrent(true);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<Response>> futures = new ArrayList();
+        for (int i = 0; i < 50; i++) {
+            String path = "/put/" + i;
+            futures.add(executor.submit(() -> handler.handle(new HttpRequestBuilder(client).method("GET").path(path).build().toRequest())));
+        }
+        for (int i = 0; i < 50; i++) {
+            match(futures.get(i).get().getBodyAsString(), i + "");
+        }
+        executor.shutdown();
+        for (int i = 0; i < 50; i++) {
+            request.path("/get/" + i);
+            handle(handler);
+            match(response.getBodyAsString(), i + "");
+        }
+        // items appended to the same list by concurrent requests are all kept
+        request.path("/shared");
+        handle(handler);
+        match(response.getBodyAsString(), "53");
+    }
+
+    @Test
+    void testConcurrentPostsKeepAllInserts() throws Exception {
+        background("def cats = {}").scenario(
+                "pathMatches('/cats') && methodIs('post')",
+                "def cat = request",
+                "def id = cat.name",
+                "eval cats[id] = cat",
+                "def response = cat"
+        ).scenario(
+                "pathMatches('/cats') && methodIs('get')",
+                "def response = karate.sizeOf(cats)"
+        ).scenario(
+                "pathMatches('/configure')",
+                "configure responseHeaders = { 'X-Test': 'configured' }",
+                "def response = 'ok'"
+        );
+        handler = new MockHandler(feature.build()).withConcurrent(true);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<Response>> futures = new ArrayList();
+        for (int i = 0; i < 50; i++) {
+            String body = "{ \"name\": \"cat" + i + "\" }";
+            futures.add(executor.submit(() -> handler.handle(new HttpRequestBuilder(client).method("POST").path("/cats")
+                    .bodyJson(body).build().toRequest())));
+        }
+        for (Future<Response> future : futures) {
+            assertEquals(200, future.get().getStatus());
+        }
+        executor.shutdown();
+        request.path("/cats");
+        handle(handler);
+        match(response.getBodyAsString(), "50");
+        // configure is per request
+        request.path("/configure");
+        handle(handler);
+        match(response.getHeader("X-Test"), "configured");
+        request.path("/cats");
+        handle(handler);
+        assertNull(response.getHeader("X-Test"));
+    }
+
+    @Test
+    void testConcurrentRequestsWithConfigFunctions() throws Exception {
+        background(
+                "configure afterScenario = function(){ karate.set('responseStatus', 201) }",
+                "configure responseHeaders = function(){ return { 'X-Path': requestUri } }"
+        ).scenario(
+                "pathMatches('/hello/{id}')",
+                "def response = pathParams.id"
+        );
+        handler = new MockHandler(feature.build()).withConcurrent(true);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<Response>> futures = new ArrayList();
+        for (int i = 0; i < 50; i++) {
+            String path = "/hello/" + i;
+            futures.add(executor.submit(() -> handler.handle(new HttpRequestBuilder(client).method("GET").path(path).build().toRequest())));
+        }
+        for (int i = 0; i < 50; i++) {
+            Response res = futures.get(i).get();
+            assertEquals(201, res.getStatus());
+            match(res.getBodyAsString(), i + "");
+            match(res.getHeader("X-Path"), "hello/" + i);
+        }
+        executor.shutdown();
+    }
+
+    @Test
+    void testCompiledRoutesKeepScenarioOrder() {
+        background().scenario(
+                "pathMatches('/a') && requestHeaders != null",
+                "def response = 'js'"
+        ).scenario(
+                "pathMatches('/a')",
+                "def response = 'compiled'"
+        ).scenario(
+                "pathMatches('/b/{id}') && methodIs('get')",
+                "def response = 'compiled ' + pathParams.id"
+        ).scenario(
+                "pathMatches('/b/new')",
+                "def response = 'too late'"
+        ).scenario(
+                "methodIs('post')",
+                "def response = 'post'"
+        ).scenario(
+                "",
+                "def response = 'default'"
+        );
+        request.path("/a");
+        handle();
+        match(response.getBodyAsString(), "js");
+        request.path("/b/5");
+        handle(handler);
+        match(response.getBodyAsString(), "compiled 5");
+        request.path("/b/new");
+        handle(handler);
+        match(response.getBodyAsString(), "compiled new");
+        request.path("/b/new").method("POST");
+        handle(handler);
+        match(response.getBodyAsString(), "too late");
+        request.path("/c").method("POST");
+        handle(handler);
+        match(response.getBodyAsString(), "post");
+        request.path("/c");
+        handle(handler);
+        match(response.getBodyAsString(), "default");
+    }
+
     @Test
     void testRequestMethod() {
         background().scenario(
@@ -0,0 +1,105 @@
+package com.intuit.karate.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @author pthomas3
+ */
+class ParallelProcessorTest {
+
+    ThreadPoolExecutor executor;
+    ExecutorService monitor;
+
+    @BeforeEach
+    void beforeEach() {
+        executor = (ThreadPoolExecutor) Executors.newFixedThreadPool(2);
+        monitor = Executors.newSingleThreadExecutor();
+    }
+
+    @AfterEach
+    void afterEach() {
+        executor.shutdownNow();
+        monitor.shutdownNow();
+    }
+
+    static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Test
+    void testSequentialItemsDoNotParkWorkers() throws Exception {
+        List<Integer> order = Collections.synchronizedList(new ArrayList());
+        AtomicInteger maxActive = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(1);
+        new ParallelProcessor<Integer>(executor, Arrays.asList(1, 2, 3, 4, 5).iterator(), monitor) {
+            @Override
+            public void process(Integer in) {
+                sleep(20);
+                // sampled mid-way, well clear of the hand-off to the next item
+                maxActive.accumulateAndGet(executor.getActiveCount(), Math::max);
+                sleep(20);
+                order.add(in);
+            }
+
+            @Override
+            public void onComplete() {
+                done.countDown();
+            }
+
+            @Override
+            public boolean shouldRunSynchronously(Integer in) {
+                return true;
+            }
+        }.execute();
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(Arrays.asList(1, 2, 3, 4, 5), order);
+        // earlier, the second worker would sit blocked on the previous item
+        assertEquals(1, maxActive.get());
+    }
+
+    @Test
+    void testFailedItemDoesNotBreakChain() throws Exception {
+        List<Integer> order = Collections.synchronizedList(new ArrayList());
+        CountDownLatch done = new CountDownLatch(1);
+        new ParallelProcessor<Integer>(executor, Arrays.asList(1, 2, 3).iterator(), monitor) {
+            @Override
+            public void process(Integer in) {
+                if (in == 2) {
+                    throw new RuntimeException("fail");
+                }
+                order.add(in);
+            }
+
+            @Override
+            public void onComplete() {
+                done.countDown();
+            }
+
+            @Override
+            public boolean shouldRunSynchronously(Integer in) {
+                return true;
+            }
+        }.execute();
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(Arrays.asList(1, 3), order);
+    }
+
+}
@@ -2,10 +2,15 @@ package com.intuit.karate.core;
 
 import com.intuit.karate.PerfHook;
 import com.intuit.karate.Runner;
+import com.intuit.karate.Suite;
 import static com.intuit.karate.TestUtils.*;
 import com.intuit.karate.http.HttpRequest;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import org.junit.jupiter.api.AfterAll;
 import static org.junit.jupiter.api.Assertions.*;
@@ -134,6 +139,97 @@ class PerfHookTest {
         assertNull(featureResult);
     }
 
+    @Test
+    void testPerfHookSharedSuite() {
+        // one suite for every iteration, the way karate-gatling uses it
+        Runner.Builder builder = Runner.builder().tags("@name=pass");
+        builder.copy().tags("@foo"); // a copy has its own tags
+        Suite suite = Runner.suiteForAsync(builder.copy());
+        assertEquals("anyOf('@name=pass')", suite.tagSelector);
+        for (int i = 0; i < 3; i++) {
+            String bar = UUID.randomUUID().toString().replaceAll("-", "");
+            Map<String, Object> arg = Collections.singletonMap("bar", bar);
+            Runner.callAsync(suite, "classpath:com/intuit/karate/core/perf.feature", arg, perfHook);
+            assertEquals(eventName, "http://localhost:" + server.getPort() + "/hello?foo=" + bar);
+            assertFalse(featureResult.isFailed());
+            matchContains(featureResult.getVariables(), "{ configSource: 'normal', response: { foo: ['" + bar + "'] } }");
+        }
+    }
+
+    @Test
+    void testPerfStepsAndCallGroups() {
+        List<String> events = new ArrayList();
+        Map<String, Object> arg = Collections.singletonMap("bar", "baz");
+        Runner.callAsync(Runner.builder().tags("@name=callGroup"), "classpath:com/intuit/karate/core/perf.feature", arg, perfStepHook(events));
+        assertFalse(featureResult.isFailed());
+        String url = "http://localhost:" + server.getPort() + "/hello";
+        assertEquals(Arrays.asList(
+                "GET " + url + " [perf-called] false",
+                "match perf-called:8 [perf-called] false",
+                "group: perf-called [perf-called] false",
+                "match perf:36 [] false"), events);
+    }
+
+    @Test
+    void testPerfStepFailureAlsoFailsHttpEvent() {
+        List<String> events = new ArrayList();
+        Map<String, Object> arg = Collections.singletonMap("bar", "baz");
+        Runner.callAsync(Runner.builder().tags("@name=failResponse"), "classpath:com/intuit/karate/core/perf.feature", arg, perfStepHook(events));
+        assertTrue(featureResult.isFailed());
+        String url = "http://localhost:" + server.getPort() + "/hello";
+        assertEquals(Arrays.asList(
+                "GET " + url + " [] true",
+                "match perf:30 [] true"), events);
+    }
+
+    PerfHook perfStepHook(List<String> events) {
+        return new PerfHook() {
+
+            @Override
+            public String getPerfEventName(HttpRequest request, ScenarioRuntime sr) {
+                return request.getMethod() + " " + request.getUrl().replaceAll("\\?.*", "");
+            }
+
+            @Override
+            public void reportPerfEvent(PerfEvent event) {
+                events.add(event.getName() + " " + event.getGroups() + " " + event.isFailed());
+            }
+
+            @Override
+            public void submit(Runnable runnable) {
+                runnable.run();
+            }
+
+            @Override
+            public void afterFeature(FeatureResult fr) {
+                featureResult = fr;
+            }
+
+            @Override
+            public void pause(Number millis) {
+
+            }
+
+            @Override
+            public Set<String> getPerfStepKeywords() {
+                return Collections.singleton("match");
+            }
+
+            @Override
+            public boolean isPerfCallGroupEnabled() {
+                return true;
+            }
+
+            @Override
+            public void reportPerfGroup(PerfEvent event, long cumulatedResponseTime) {
+                assertTrue(cumulatedResponseTime >= 0);
+                assertTrue(cumulatedResponseTime <= event.getEndTime() - event.getStartTime());
+                events.add("group: " + event.getName() + " " + event.getGroups() + " " + event.isFailed());
+            }
+
+        };
+    }
+
     String eventName;
     FeatureResult featureResult;
     PerfHook perfHook = new PerfHook() {
@@ -0,0 +1,57 @@
+package com.intuit.karate.core;
+
+import com.intuit.karate.Runner;
+import com.intuit.karate.Suite;
+import com.intuit.karate.TestUtils;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * runs a trivial scenario end-to-end, with and without js context pooling
+ *
+ * mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.intuit.karate.core.ScenarioRuntimeBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ScenarioRuntimeBenchmark {
+
+    @Param({"0", "4"})
+    int jsEnginePool;
+
+    Suite suite;
+    Feature feature;
+
+    @Setup
+    public void setup() {
+        suite = new Suite(Runner.builder().jsEnginePool(jsEnginePool).outputHtmlReport(false).backupReportDir(false));
+        feature = TestUtils.toFeature("def a = 1", "def fun = function(x){ return x + 1 }", "match fun(a) == 2");
+    }
+
+    @Benchmark
+    public FeatureResult run() {
+        FeatureRuntime fr = FeatureRuntime.of(suite, feature);
+        fr.run();
+        return fr.result;
+    }
+
+    public static void main(String[] args) throws Exception {
+        new org.openjdk.jmh.runner.Runner(new OptionsBuilder().include(ScenarioRuntimeBenchmark.class.getSimpleName()).build()).run();
+    }
+
+}
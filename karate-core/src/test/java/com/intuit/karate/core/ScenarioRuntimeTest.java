@@ -199,6 +199,16 @@ class ScenarioRuntimeTest {
         matchVar("first", get("second"));
     }
 
+    @Test
+    void testCallSingleThatReturnsUndefined() {
+        run(
+                "def first = karate.callSingle('callsingle-undefined.js')",
+                "def second = karate.callSingle('callsingle-undefined.js')"
+        );
+        assertNull(get("first"));
+        assertNull(get("second"));
+    }
+
     @Test
     void testCallSingleThatReturnsJson() {
         run(
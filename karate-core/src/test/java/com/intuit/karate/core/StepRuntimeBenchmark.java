@@ -0,0 +1,114 @@
+package com.intuit.karate.core;
+
+import com.intuit.karate.ScenarioActions;
+import com.intuit.karate.TestUtils;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * compares the original "scan every pattern + reflection" step dispatch with
+ * the keyword-indexed, cached, method-handle based one
+ *
+ * mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.intuit.karate.core.StepRuntimeBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StepRuntimeBenchmark {
+
+    static final String[] TEXTS = {
+        "url 'http://localhost:8080'",
+        "path 'cats', id",
+        "def foo = { bar: 1 }",
+        "match response == { id: '#number' }",
+        "status 200",
+        "foo.bar = 2",
+        "print 'hello'"
+    };
+
+    ScenarioActions actions;
+    List<Step> steps;
+
+    @Setup
+    public void setup() {
+        ScenarioRuntime sr = TestUtils.runtime();
+        // no-op so that the measurement stays on dispatch and not on the step itself
+        actions = new ScenarioActions(sr.engine) {
+            @Override
+            public void status(int status) {
+
+            }
+        };
+        steps = new ArrayList(TEXTS.length);
+        for (String text : TEXTS) {
+            Step step = new Step(sr.scenario, -1);
+            step.setPrefix("*");
+            step.setText(text);
+            steps.add(step);
+        }
+    }
+
+    @Benchmark
+    public void resolveLegacy(Blackhole bh) {
+        for (String text : TEXTS) {
+            List<StepRuntime.MethodMatch> matches = new ArrayList(1);
+            for (StepRuntime.MethodPattern pattern : StepRuntime.PATTERNS) {
+                List<String> args = pattern.match(text);
+                if (args != null) {
+                    matches.add(new StepRuntime.MethodMatch(pattern.method, args));
+                }
+            }
+            bh.consume(matches);
+        }
+    }
+
+    @Benchmark
+    public void resolveIndexed(Blackhole bh) {
+        for (String text : TEXTS) {
+            bh.consume(StepRuntime.findMethodsMatching(text));
+        }
+    }
+
+    @Benchmark
+    public void resolveCached(Blackhole bh) {
+        for (Step step : steps) {
+            bh.consume(StepRuntime.resolve(step, step.getText()));
+        }
+    }
+
+    @Benchmark
+    public void invokeReflection(Blackhole bh) throws Exception {
+        StepRuntime.MethodMatch match = StepRuntime.resolve(steps.get(4), "status 200");
+        bh.consume(match.method.invoke(actions, match.convertArgs(null)));
+    }
+
+    @Benchmark
+    public void invokeMethodHandle(Blackhole bh) throws Throwable {
+        StepRuntime.MethodMatch match = StepRuntime.resolve(steps.get(4), "status 200");
+        match.invoke(actions, match.convertArgs(null));
+        bh.consume(match);
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder().include(StepRuntimeBenchmark.class.getSimpleName()).build()).run();
+    }
+
+}
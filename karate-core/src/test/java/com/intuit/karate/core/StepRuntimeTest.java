@@ -123,4 +123,34 @@ public class StepRuntimeTest {
 
         );
     }
+
+    @Test
+    public void testKeywordIndexMatchesFullScan() {
+        String[] texts = {"def a = 1", "def a =", "eval", "eval foo()", "request", "request { a: 1 }", "foo.bar = 1",
+            "soap action 'x'", "match a == b", "set foo.bar = 1", "table foo", "replace foo", "defx = 1", "retry until x"};
+        for (String text : texts) {
+            List<Method> expected = new ArrayList();
+            for (StepRuntime.MethodPattern pattern : StepRuntime.PATTERNS) {
+                if (pattern.match(text) != null) {
+                    expected.add(pattern.method);
+                }
+            }
+            List<StepRuntime.MethodMatch> matches = StepRuntime.findMethodsMatching(text);
+            Assertions.assertEquals(expected.size(), matches.size(), text);
+            matches.forEach(m -> Assertions.assertTrue(expected.contains(m.method), text));
+        }
+    }
+
+    @Test
+    public void testStepMethodMatchCachedUntilTextChanges() {
+        Feature feature = Feature.read("classpath:com/intuit/karate/core/dummy.feature");
+        Step step = new Step(feature, -1);
+        step.setText("def a = 1");
+        StepRuntime.MethodMatch first = StepRuntime.resolve(step, step.getText());
+        Assertions.assertSame(first, StepRuntime.resolve(step, step.getText()));
+        step.setText("print a");
+        Assertions.assertNull(step.getMethodMatch());
+        Assertions.assertEquals("print", StepRuntime.resolve(step, step.getText()).method.getName());
+    }
+
 }
@@ -106,4 +106,34 @@ class TagsTest {
         assertFalse(evalEnv("anyOf('@baz')", "foo", "@envnot=baz", "@bar"));
     }
 
+    @Test
+    public void testCompiledSelectors() {
+        assertTrue(TagSelector.compile("anyOf('@foo','@bar') && not('@baz')").isCompiled());
+        assertTrue(TagSelector.compile("!(anyOf(\"@foo\") || allOf('@a', '@b'))").isCompiled());
+        assertTrue(TagSelector.compile("valuesFor('@id').isPresent() && valuesFor('@id').isOnly(1, 2)").isCompiled());
+        assertFalse(TagSelector.compile("valuesFor('@id').isEach(s => s.startsWith('1'))").isCompiled());
+        assertFalse(TagSelector.compile("valuesFor('@id').isAnyOf(1.0)").isCompiled());
+        assertFalse(TagSelector.compile("anyOf('@foo') ? true : false").isCompiled());
+        String[] selectors = {
+            "anyOf('@foo') && !anyOf('@ignore')",
+            "!(anyOf('@foo') || allOf('@bar', '@baz'))",
+            "not('@foo', '@qux') || valuesFor('@id').isAnyOf(2, 3)",
+            "valuesFor('@id').isPresent && !valuesFor('@id').isAllOf(1, 2)",
+            "allOf() && !anyOf()"
+        };
+        String[][] tagSets = {{}, {"@foo"}, {"@bar", "@baz"}, {"@foo", "@ignore", "@id=1,2"}, {"@qux", "@id=3"}};
+        for (String selector : selectors) {
+            TagSelector ts = TagSelector.compile(selector);
+            assertTrue(ts.isCompiled(), selector);
+            for (String[] tagSet : tagSets) {
+                List<Tag> list = new ArrayList();
+                for (String s : tagSet) {
+                    list.add(new Tag(0, s));
+                }
+                Tags tags = new Tags(list);
+                assertEquals(tags.evaluateJs(selector), ts.test(tags), selector);
+            }
+        }
+    }
+
 }
@@ -0,0 +1,40 @@
+package com.intuit.karate.core;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.*;
+
+/**
+ *
+ * @author pthomas3
+ */
+class VirtualThreadExecutorServiceTest {
+
+    @Test
+    void testConcurrencyIsLimited() throws Exception {
+        assumeTrue(VirtualThreadExecutorService.isSupported(), "needs java 21+");
+        VirtualThreadExecutorService executor = new VirtualThreadExecutorService(3);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(50);
+        for (int i = 0; i < 50; i++) {
+            executor.execute(() -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(5);
+                } catch (InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+                running.decrementAndGet();
+                done.countDown();
+            });
+        }
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertEquals(3, maxRunning.get());
+        executor.shutdown();
+    }
+
+}
@@ -0,0 +1,3 @@
+function fn() {
+  karate.log('setup done');
+}
@@ -0,0 +1,5 @@
+@ignore
+Feature:
+
+Scenario: `hello ${name}`
+* def scenarioName = karate.scenario.name
@@ -0,0 +1,7 @@
+Feature:
+
+Scenario:
+* def first = call read('feature-cache-called.feature') { name: 'A' }
+* def second = call read('feature-cache-called.feature') { name: 'B' }
+* match first.scenarioName == 'hello A'
+* match second.scenarioName == 'hello B'
@@ -5,6 +5,7 @@ import com.intuit.karate.Runner;
 import com.intuit.karate.core.Feature;
 import com.intuit.karate.core.MockHandler;
 import com.intuit.karate.http.HttpServer;
+import java.util.Map;
 import static org.junit.jupiter.api.Assertions.*;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
@@ -36,4 +37,30 @@ class ParallelTest {
         assertEquals(0, results.getFailCount(), results.getErrorMessages());
     }
 
+    @Test
+    void testParallelWithKarateConfigCache() {
+        Results results = Runner.path("classpath:com/intuit/karate/core/parallel/parallel.feature")
+                .configDir("classpath:com/intuit/karate/core/parallel")
+                .systemProperty("server.port", server.getPort() + "")
+                .karateConfigCache(true)
+                .parallel(3);
+        assertEquals(0, results.getFailCount(), results.getErrorMessages());
+    }
+
+    @Test
+    void testParallelWithConnectionPool() {
+        Results results = Runner.path("classpath:com/intuit/karate/core/parallel/parallel.feature")
+                .configDir("classpath:com/intuit/karate/core/parallel")
+                .karateEnv("pool")
+                .systemProperty("server.port", server.getPort() + "")
+                .parallel(3);
+        assertEquals(0, results.getFailCount(), results.getErrorMessages());
+        Map<String, Object> stats = results.getHttpClientPoolStats();
+        assertEquals(1, stats.get("pools"));
+        assertEquals(0, stats.get("leased"));
+        assertEquals(10, stats.get("max"));
+        assertTrue((Long) stats.get("requests") >= 3);
+        assertTrue((Long) stats.get("peakLeased") >= 1);
+    }
+
 }
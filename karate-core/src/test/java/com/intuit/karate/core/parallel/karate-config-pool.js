@@ -0,0 +1,4 @@
+function fn() {
+  karate.configure('connectionPool', { maxTotal: 10, maxPerRoute: 5, keepAlive: 30000 });
+  return {};
+}
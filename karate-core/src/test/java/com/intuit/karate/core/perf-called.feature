@@ -0,0 +1,8 @@
+Feature:
+
+Scenario:
+* url 'http://localhost:' + karate.properties['karate.server.port']
+* path 'hello'
+* param foo = bar
+* method get
+* match response == { foo: [#(bar)] }
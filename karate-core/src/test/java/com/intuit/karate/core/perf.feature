@@ -29,3 +29,8 @@ Scenario:
 # The following line will fail
 * match response == {}
 
+
+@name=callGroup
+Scenario:
+* call read('perf-called.feature')
+* match bar == '#string'
@@ -9,6 +9,7 @@ import com.intuit.karate.core.Feature;
 import com.intuit.karate.core.FeatureRuntime;
 import java.io.File;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import static org.junit.jupiter.api.Assertions.*;
 import org.junit.jupiter.api.Test;
@@ -66,6 +67,63 @@ class RunnerTest {
         assertEquals(3, results.getFailCount());
     }
 
+    @Test
+    void testParallelWithJsEnginePool() {
+        Results results = Runner.path(
+                "classpath:com/intuit/karate/core/runner/multi-scenario-fail.feature",
+                "classpath:com/intuit/karate/core/runner/scenario.feature",
+                "classpath:com/intuit/karate/core/runner/outline.feature"
+        ).outputHtmlReport(false).jsEnginePool(2).parallel(2);
+        assertEquals(1, results.getFailCount());
+        assertEquals(results.getScenariosTotal(), results.getScenariosPassed() + results.getScenariosFailed());
+    }
+
+    @Test
+    void testParallelWithDurationAwareScheduling() {
+        Runner.Builder builder = Runner.path(
+                "classpath:com/intuit/karate/core/runner/multi-scenario-fail.feature",
+                "classpath:com/intuit/karate/core/runner/scenario.feature",
+                "classpath:com/intuit/karate/core/runner/outline.feature"
+        ).reportDir("target/duration-aware").outputHtmlReport(false).backupReportDir(false).durationAwareScheduling(true);
+        for (int i = 0; i < 2; i++) { // the second run orders by the durations of the first
+            Results results = builder.parallel(2);
+            assertEquals(1, results.getFailCount());
+            assertEquals(results.getScenariosTotal(), results.getScenariosPassed() + results.getScenariosFailed());
+            assertTrue(results.getIdealTime() > 0);
+            assertTrue(results.getSchedulingEfficiency() > 0);
+            assertTrue(results.getSchedulingEfficiency() <= 1);
+        }
+    }
+
+    @Test
+    void testParallelWithVirtualThreads() {
+        // falls back to platform threads on a jvm older than 21
+        Results results = Runner.path(
+                "classpath:com/intuit/karate/core/runner/scenario.feature",
+                "classpath:com/intuit/karate/core/runner/outline.feature"
+        ).reportDir("target/virtual-threads").outputHtmlReport(false).virtualThreads(true).parallel(4);
+        assertEquals(0, results.getFailCount());
+        assertTrue(results.getScenariosPassed() > 1);
+    }
+
+    @Test
+    void testResultsAreAggregatedInMemory() {
+        Results results = Runner.path(
+                "classpath:com/intuit/karate/core/runner/multi-scenario-fail.feature",
+                "classpath:com/intuit/karate/core/runner/outline.feature"
+        ).reportDir("target/in-memory-results").parallel(2);
+        // the suite level reports should not depend on the per-feature files
+        results.getSuite().featureResultFiles.forEach(File::delete);
+        Results rebuilt = results.getSuite().buildResults();
+        assertEquals(results.getFeaturesPassed(), rebuilt.getFeaturesPassed());
+        assertEquals(results.getFeaturesFailed(), rebuilt.getFeaturesFailed());
+        assertEquals(results.getScenariosPassed(), rebuilt.getScenariosPassed());
+        assertEquals(1, rebuilt.getScenariosFailed());
+        assertEquals(results.getErrors(), rebuilt.getErrors());
+        List featureSummary = (List) rebuilt.toKarateJson().get("featureSummary");
+        assertEquals(2, featureSummary.size());
+    }
+
     @Test
     void testRunningFeatureFromJavaApi() {
         Map<String, Object> result = Runner.runFeature(getClass(), "scenario.feature", null, true);
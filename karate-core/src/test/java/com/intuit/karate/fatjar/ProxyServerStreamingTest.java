@@ -0,0 +1,117 @@
+package com.intuit.karate.fatjar;
+
+import com.intuit.karate.http.ProxyServer;
+import com.sun.net.httpserver.HttpServer;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import org.apache.http.HttpHost;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.util.EntityUtils;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @author pthomas3
+ */
+class ProxyServerStreamingTest {
+
+    static final int SIZE = 5 * 1024 * 1024; // well over the aggregator limit
+
+    static ProxyServer proxy;
+    static HttpServer server;
+
+    @BeforeAll
+    static void beforeClass() throws Exception {
+        proxy = new ProxyServer(0, null, pr -> pr.header("X-Proxied", "true"), true);
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/download", exchange -> {
+            exchange.sendResponseHeaders(200, SIZE);
+            try (OutputStream os = exchange.getResponseBody()) {
+                byte[] chunk = new byte[8192];
+                for (int i = 0; i < SIZE / chunk.length; i++) {
+                    os.write(chunk);
+                }
+            }
+        });
+        server.createContext("/upload", exchange -> {
+            long count = 0;
+            try (InputStream is = exchange.getRequestBody()) {
+                byte[] buf = new byte[8192];
+                int n;
+                while ((n = is.read(buf)) != -1) {
+                    count += n;
+                }
+            }
+            byte[] body = String.valueOf(count).getBytes();
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(body);
+            }
+        });
+        server.start();
+    }
+
+    @AfterAll
+    static void afterClass() {
+        server.stop(0);
+        proxy.stop();
+    }
+
+    static CloseableHttpClient client() {
+        return HttpClients.custom().setProxy(new HttpHost("localhost", proxy.getPort())).build();
+    }
+
+    String url(String path) {
+        return "http://localhost:" + server.getAddress().getPort() + path;
+    }
+
+    @Test
+    void testLargeDownload() throws Exception {
+        try (CloseableHttpClient client = client()) {
+            HttpResponse response = client.execute(new HttpGet(url("/download")));
+            assertEquals(200, response.getStatusLine().getStatusCode());
+            assertEquals("true", response.getFirstHeader("X-Proxied").getValue());
+            assertEquals(SIZE, EntityUtils.toByteArray(response.getEntity()).length);
+        }
+    }
+
+    @Test
+    void testLargeUpload() throws Exception {
+        try (CloseableHttpClient client = client()) {
+            HttpPost post = new HttpPost(url("/upload"));
+            post.setEntity(new ByteArrayEntity(new byte[SIZE]));
+            HttpResponse response = client.execute(post);
+            assertEquals(200, response.getStatusLine().getStatusCode());
+            assertEquals(String.valueOf(SIZE), EntityUtils.toString(response.getEntity()));
+        }
+    }
+
+    @Test
+    void testInspectBodyOptIn() throws Exception {
+        ProxyServer inspecting = new ProxyServer(0,
+                pr -> pr.uri().contains("/upload") ? pr.fake(200, "seen: " + pr.request.content().readableBytes()) : null,
+                null, true, head -> head.uri().contains("/upload"));
+        try (CloseableHttpClient client = HttpClients.custom().setProxy(new HttpHost("localhost", inspecting.getPort())).build()) {
+            HttpPost post = new HttpPost(url("/upload"));
+            post.setEntity(new ByteArrayEntity(new byte[1000]));
+            HttpResponse response = client.execute(post);
+            assertEquals("seen: 1000", EntityUtils.toString(response.getEntity()));
+            // everything else is still streamed
+            response = client.execute(new HttpGet(url("/download")));
+            assertEquals(200, response.getStatusLine().getStatusCode());
+            assertEquals(SIZE, EntityUtils.toByteArray(response.getEntity()).length);
+        } finally {
+            inspecting.stop();
+        }
+    }
+
+}
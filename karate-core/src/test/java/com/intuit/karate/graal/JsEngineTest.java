@@ -3,10 +3,15 @@ package com.intuit.karate.graal;
 import com.intuit.karate.Match;
 import com.intuit.karate.core.MockUtils;
 import com.intuit.karate.http.Request;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.function.Function;
 import org.graalvm.polyglot.Value;
 import org.junit.jupiter.api.AfterEach;
@@ -273,4 +278,89 @@ class JsEngineTest {
         assertTrue(jv.isTrue());
     }
 
+    @Test
+    void testAttachSourceIsBounded() {
+        JsEngine je = JsEngine.local();
+        Value fun = je.attachSource("function(){ return 0 }");
+        for (int i = 1; i <= 256; i++) {
+            je.attachSource("function(){ return " + i + " }");
+        }
+        // evicted, so attached again
+        Value again = je.attachSource("function(){ return 0 }");
+        assertNotSame(fun, again);
+        assertEquals(0, again.execute().asInt());
+    }
+
+    @Test
+    void testPoolResetAndDirtyContext() {
+        JsEnginePool pool = new JsEnginePool(2);
+        JsEngine first = pool.acquire();
+        first.put("foo", "bar");
+        first.eval("baz = 1");
+        Value fun = first.attachSource("function(){ return 1 }");
+        assertSame(fun, first.attachSource("function(){ return 1 }"));
+        pool.release(first);
+        JsEngine second = pool.acquire();
+        assertSame(first, second);
+        assertFalse(second.bindings.hasMember("foo"));
+        assertFalse(second.bindings.hasMember("baz"));
+        assertNotSame(fun, second.attachSource("function(){ return 1 }"));
+        second.eval("var dirty = 1");
+        pool.release(second);
+        assertEquals(1, pool.getDiscarded());
+        assertNotSame(second, pool.acquire());
+        assertEquals(1, pool.getReused());
+        assertEquals(2, pool.getCreated());
+    }
+
+    @Test
+    void testPoolDiscardsModifiedBuiltIns() {
+        JsEnginePool pool = new JsEnginePool(2);
+        JsEngine first = pool.acquire();
+        first.eval("Array.prototype.leak = 42; JSON.leak2 = 1");
+        pool.release(first);
+        assertEquals(1, pool.getDiscarded());
+        JsEngine second = pool.acquire();
+        assertNotSame(first, second);
+        assertTrue(second.eval("[].leak === undefined && JSON.leak2 === undefined").isTrue());
+        second.eval("delete Math.max");
+        pool.release(second);
+        assertEquals(2, pool.getDiscarded());
+        JsEngine third = pool.acquire();
+        third.eval("x = [1, 2].map(function(v){ return v * 2 })");
+        pool.release(third);
+        assertEquals(2, pool.getDiscarded());
+        assertSame(third, pool.acquire());
+    }
+
+    @Test
+    void testPoolNeverExceedsMaxIdle() throws Exception {
+        JsEnginePool pool = new JsEnginePool(2);
+        List<JsEngine> engines = new ArrayList();
+        for (int i = 0; i < 8; i++) {
+            engines.add(pool.acquire());
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch latch = new CountDownLatch(1);
+        List<Future> futures = new ArrayList();
+        for (JsEngine je : engines) {
+            futures.add(executor.submit(() -> {
+                latch.await();
+                pool.release(je);
+                return null;
+            }));
+        }
+        latch.countDown();
+        for (Future f : futures) {
+            f.get();
+        }
+        executor.shutdown();
+        assertEquals(6, pool.getDiscarded());
+        assertNotNull(pool.acquire());
+        assertNotNull(pool.acquire());
+        assertEquals(2, pool.getReused());
+        pool.acquire();
+        assertEquals(9, pool.getCreated());
+    }
+
 }
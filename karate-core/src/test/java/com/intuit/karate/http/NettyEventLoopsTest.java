@@ -0,0 +1,36 @@
+package com.intuit.karate.http;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.EventLoopGroup;
+import java.net.ServerSocket;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @author pthomas3
+ */
+class NettyEventLoopsTest {
+
+    @Test
+    void testSharedGroupConnects() throws Exception {
+        EventLoopGroup group = NettyEventLoops.client();
+        assertSame(group, NettyEventLoops.client());
+        try (ServerSocket server = new ServerSocket(0)) {
+            for (int i = 0; i < 3; i++) {
+                Channel channel = new Bootstrap()
+                        .group(group)
+                        .channel(NettyEventLoops.socketChannelClass())
+                        .handler(new ChannelInboundHandlerAdapter())
+                        .connect("127.0.0.1", server.getLocalPort()).sync().channel();
+                assertTrue(channel.isActive());
+                channel.close().sync();
+            }
+        }
+        // closing channels does not shut the shared group down
+        assertFalse(group.isShuttingDown());
+    }
+
+}
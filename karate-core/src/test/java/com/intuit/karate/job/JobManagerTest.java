@@ -0,0 +1,173 @@
+package com.intuit.karate.job;
+
+import com.intuit.karate.FileUtils;
+import com.intuit.karate.Http;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @author pthomas3
+ */
+class JobManagerTest {
+
+    static class TestJobConfig extends JobConfigBase<Integer> {
+
+        final Set<String> executorDirs = ConcurrentHashMap.newKeySet();
+        final Set<String> uploads = ConcurrentHashMap.newKeySet();
+        final Map<Integer, String> logs = new ConcurrentHashMap();
+        boolean echo;
+        ExecutorService executors;
+
+        TestJobConfig() {
+            super(1, "localhost", 0);
+        }
+
+        @Override
+        public String getSourcePath() {
+            return "src/test/java/com/intuit/karate/job";
+        }
+
+        @Override
+        public List<JobCommand> getStartupCommands() {
+            return Collections.EMPTY_LIST;
+        }
+
+        @Override
+        public List<JobCommand> getShutdownCommands() {
+            return Collections.EMPTY_LIST;
+        }
+
+        @Override
+        public List<JobCommand> getMainCommands(JobChunk<Integer> jc) {
+            if (echo) {
+                return Collections.singletonList(new JobCommand("echo chunk-" + jc.getValue() + "-done"));
+            }
+            return Collections.EMPTY_LIST;
+        }
+
+        @Override
+        public Integer handleUpload(JobChunk<Integer> chunk, File upload) {
+            executorDirs.add(chunk.getExecutorDir());
+            uploads.addAll(JobUtils.listFiles(upload));
+            File log = new File(upload, "karate.log");
+            if (log.exists()) {
+                logs.put(chunk.getValue(), FileUtils.toString(log));
+            }
+            return chunk.getValue() * 10;
+        }
+
+        @Override
+        public void onStart(String jobId, String jobUrl) {
+            executors = Executors.newFixedThreadPool(2);
+            for (int i = 0; i < 2; i++) {
+                executors.submit(() -> JobExecutor.run(jobUrl));
+            }
+        }
+
+        @Override
+        public void onStop() {
+            executors.shutdown();
+            try {
+                executors.awaitTermination(30, TimeUnit.SECONDS);
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        }
+
+    }
+
+    @Test
+    void testBatchedConcurrentPrefetch() {
+        TestJobConfig config = new TestJobConfig();
+        config.setBatchSize(3);
+        config.setExecutorThreads(2);
+        config.setPrefetch(true);
+        JobManager<Integer> jm = new JobManager(config);
+        List<CompletableFuture<Integer>> futures = new ArrayList();
+        for (int i = 1; i <= 10; i++) {
+            futures.add(jm.addChunk(i));
+        }
+        try {
+            jm.start();
+            jm.waitForCompletion();
+        } finally {
+            jm.server.stop();
+        }
+        for (int i = 0; i < 10; i++) {
+            assertEquals((i + 1) * 10, futures.get(i).join());
+        }
+        // concurrent chunks each get their own dir
+        assertEquals(10, config.executorDirs.size());
+        assertTrue(config.uploads.contains("karate.log"));
+        // working dir is built from the manifest
+        File synced = new File(FileUtils.getBuildDir() + File.separator + jm.jobId + "_1" + File.separator + "test.feature");
+        assertEquals(FileUtils.toString(new File(config.getSourcePath(), "test.feature")), FileUtils.toString(synced));
+    }
+
+    @Test
+    void testConcurrentChunkLogs() {
+        TestJobConfig config = new TestJobConfig();
+        config.echo = true;
+        config.setBatchSize(4);
+        config.setExecutorThreads(2);
+        JobManager<Integer> jm = new JobManager(config);
+        for (int i = 1; i <= 8; i++) {
+            jm.addChunk(i);
+        }
+        try {
+            jm.start();
+            jm.waitForCompletion();
+        } finally {
+            jm.server.stop();
+        }
+        assertEquals(8, config.logs.size());
+        config.logs.forEach((value, log) -> {
+            for (int i = 1; i <= 8; i++) {
+                assertEquals(i == value, log.contains("chunk-" + i + "-done"), "chunk " + value + ": " + log);
+            }
+        });
+    }
+
+    @Test
+    void testBatchedNext() {
+        TestJobConfig config = new TestJobConfig();
+        JobManager<Integer> jm = new JobManager(config);
+        try {
+            for (int i = 1; i <= 5; i++) {
+                jm.addChunk(i);
+            }
+            assertEquals(2, next(jm, 2).size());
+            assertEquals(2, next(jm, 2).size());
+            List<Map<String, Object>> last = next(jm, 2);
+            assertEquals(1, last.size());
+            assertEquals("5", last.get(0).get("chunkId"));
+            assertEquals("target/x", last.get(0).get("executorDir"));
+            JobMessage req = new JobMessage("next").put("executorDir", "target/x");
+            req.setExecutorId("1");
+            assertTrue(JobExecutor.invokeServer(Http.to(jm.jobUrl), req).is("stop"));
+        } finally {
+            jm.server.stop();
+        }
+    }
+
+    static List<Map<String, Object>> next(JobManager jm, int batchSize) {
+        JobMessage req = new JobMessage("next").put("executorDir", "target/x").put("batchSize", batchSize);
+        req.setExecutorId("1");
+        JobMessage res = JobExecutor.invokeServer(Http.to(jm.jobUrl), req);
+        assertTrue(res.is("next"));
+        return res.get("chunks");
+    }
+
+}
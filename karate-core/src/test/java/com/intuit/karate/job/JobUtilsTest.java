@@ -0,0 +1,84 @@
+package com.intuit.karate.job;
+
+import com.intuit.karate.FileUtils;
+import java.io.File;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @author pthomas3
+ */
+class JobUtilsTest {
+
+    @Test
+    void testManifestAndZip() {
+        File root = new File(FileUtils.getBuildDir() + File.separator + "job-utils-test");
+        if (root.exists()) {
+            FileUtils.deleteDirectory(root);
+        }
+        FileUtils.writeToFile(new File(root, "a.txt"), "hello");
+        FileUtils.writeToFile(new File(root, "sub/b.txt"), "hello");
+        FileUtils.writeToFile(new File(root, "sub/target/c.txt"), "excluded");
+        Map<String, String> manifest = JobUtils.manifest(root);
+        assertEquals(2, manifest.size());
+        // same content, same hash
+        assertEquals("aaf4c61ddcc5e8a2dabede0f3b482cd9aea9434d", manifest.get("a.txt"));
+        assertEquals(manifest.get("a.txt"), manifest.get("sub/b.txt"));
+        File zip = new File(root.getPath() + ".zip");
+        FileUtils.writeToFile(zip, JobUtils.zip(root, Arrays.asList("sub/b.txt")));
+        File dest = new File(root.getPath() + "_unzipped");
+        if (dest.exists()) {
+            FileUtils.deleteDirectory(dest);
+        }
+        JobUtils.unzip(zip, dest);
+        assertEquals("hello", FileUtils.toString(new File(dest, "sub/b.txt")));
+        assertFalse(new File(dest, "a.txt").exists());
+    }
+
+    @Test
+    void testLimitBySize() {
+        File root = new File(FileUtils.getBuildDir() + File.separator + "job-utils-limit-test");
+        FileUtils.writeToFile(new File(root, "a.txt"), "12345");
+        FileUtils.writeToFile(new File(root, "b.txt"), "12345");
+        FileUtils.writeToFile(new File(root, "c.txt"), "12345");
+        List<String> paths = Arrays.asList("a.txt", "b.txt", "c.txt");
+        assertEquals(Arrays.asList("a.txt", "b.txt"), JobUtils.limitBySize(root, paths, 10));
+        assertEquals(paths, JobUtils.limitBySize(root, paths, 15));
+        // at least one, even if bigger than the limit
+        assertEquals(Arrays.asList("a.txt"), JobUtils.limitBySize(root, paths, 1));
+    }
+
+    @Test
+    void testPruneBySize() {
+        File dir = new File(FileUtils.getBuildDir() + File.separator + "job-utils-prune-test");
+        if (dir.exists()) {
+            FileUtils.deleteDirectory(dir);
+        }
+        String[] names = {"a", "b", "c", "d"};
+        for (int i = 0; i < names.length; i++) {
+            File file = new File(dir, names[i]);
+            FileUtils.writeToFile(file, "12345");
+            file.setLastModified((i + 1) * 10000L);
+        }
+        assertEquals(0, JobUtils.pruneBySize(dir, 20, 0));
+        // oldest first, until at most 10 bytes
+        assertEquals(2, JobUtils.pruneBySize(dir, 10, 40000));
+        assertFalse(new File(dir, "a").exists());
+        assertFalse(new File(dir, "b").exists());
+        // never what is recent, even if over the limit
+        assertEquals(0, JobUtils.pruneBySize(dir, 0, 30000));
+        assertTrue(new File(dir, "c").exists());
+        assertTrue(new File(dir, "d").exists());
+    }
+
+    @Test
+    void testResolveOutsideParent() {
+        File parent = new File(FileUtils.getBuildDir());
+        assertThrows(Exception.class, () -> JobUtils.resolve(parent, "../foo.txt"));
+    }
+
+}
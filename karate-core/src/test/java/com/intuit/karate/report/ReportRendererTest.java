@@ -0,0 +1,40 @@
+package com.intuit.karate.report;
+
+import com.intuit.karate.FileUtils;
+import com.intuit.karate.core.Feature;
+import com.intuit.karate.core.FeatureRuntime;
+import java.io.File;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * @author pthomas3
+ */
+class ReportRendererTest {
+
+    @Test
+    void testRenderSameAsReportAndInBackground() {
+        Feature feature = Feature.read("classpath:com/intuit/karate/report/test.feature");
+        FeatureRuntime fr = FeatureRuntime.of(feature);
+        fr.run();
+        File expected = SuiteReports.DEFAULT.featureReport(fr.suite, fr.result).render("target/report-renderer/plain");
+        ReportRenderer renderer = new ReportRenderer();
+        Report report = Report.template("karate-feature.html")
+                .reportDir("target/report-renderer/shared")
+                .reportFileName("first.html")
+                .variable("results", fr.result.toKarateJson())
+                .build();
+        File first = renderer.render(report);
+        assertEquals(FileUtils.toString(expected), FileUtils.toString(first));
+        assertTrue(new File("target/report-renderer/shared/res").isDirectory());
+        renderer.submit(() -> Report.template("karate-feature.html")
+                .reportDir("target/report-renderer/shared")
+                .reportFileName("second.html")
+                .variable("results", fr.result.toKarateJson())
+                .build());
+        renderer.close();
+        assertEquals(FileUtils.toString(first), FileUtils.toString(new File("target/report-renderer/shared/second.html")));
+    }
+
+}
@@ -0,0 +1,57 @@
+package com.intuit.karate.shell;
+
+import com.intuit.karate.FileUtils;
+import java.io.File;
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+/**
+ *
+ * @author pthomas3
+ */
+class StringLogAppenderTest {
+
+    @Test
+    void testUnlimited() {
+        StringLogAppender appender = new StringLogAppender(true);
+        appender.append("foo");
+        appender.append("bar");
+        assertEquals("foo\nbar\n", appender.getBuffer());
+        assertEquals("foo\nbar\n", appender.collect());
+        assertEquals("", appender.collect());
+    }
+
+    @Test
+    void testCappedWithSpill() {
+        File spill = new File("target/string-log-appender-test/spill.log");
+        spill.delete();
+        StringLogAppender appender = new StringLogAppender(false, 40, spill); // head 30, tail 10
+        appender.append("0123456789");
+        assertEquals("0123456789", appender.collect());
+        assertNull(appender.getSpillFile());
+        appender.append("abcdefghijklmnopqrstuvwxyz"); // 20 fit in the head, 6 over
+        appender.append("ABCDEFGHIJ");
+        String log = appender.collect();
+        assertTrue(log.startsWith("abcdefghijklmnopqrst\n... [6 characters truncated, see: "), log);
+        assertTrue(log.endsWith("] ...\nABCDEFGHIJ"), log);
+        // the head is used up for the rest of the scenario, but each step gets a tail
+        appender.append("0123456789");
+        assertEquals("0123456789", appender.collect());
+        appender.append("abcdefghij");
+        appender.append("klmnopqrstuvwxy");
+        assertEquals("\n... [15 characters truncated, see: " + spill.getPath() + "] ...\npqrstuvwxy", appender.collect());
+        appender.append("last");
+        assertEquals("last", appender.collect());
+        appender.close();
+        assertEquals("uvwxyzABCDEFGHIJ0123456789abcdefghijklmnopqrstuvwxylast", FileUtils.toString(spill));
+    }
+
+    @Test
+    void testCappedWithoutSpill() {
+        StringLogAppender appender = new StringLogAppender(false, 8, null); // head 6, tail 2
+        appender.append("hello world");
+        assertEquals("hello \n... [3 characters truncated] ...\nld", appender.collect());
+        appender.close();
+    }
+
+}
@@ -10,30 +10,28 @@ import io.gatling.commons.stats.{KO, OK}
 import io.gatling.commons.util.Clock
 import io.gatling.core.action.builder.ActionBuilder
 import io.gatling.core.action.{Action, ExitableAction}
-import io.gatling.core.session.Session
+import io.gatling.core.session.{GroupBlock, Session}
 import io.gatling.core.stats.StatsEngine
 import io.gatling.core.structure.ScenarioContext
 import io.gatling.core.util.NameGen
 
 import scala.jdk.CollectionConverters._
-import scala.concurrent.duration.{Duration, MILLISECONDS}
-import scala.concurrent.{Await, ExecutionContextExecutor, Future}
 
 class KarateFeatureAction(val name: String, val tags: Seq[String], val protocol: KarateProtocol, val system: ActorSystem,
                           val statsEngine: StatsEngine, val clock: Clock, val next: Action) extends ExitableAction {
 
-  override def execute(session: Session) = {
+  lazy val stepKeywords: java.util.Set[String] = protocol.stepKeywords.asJava
 
-    implicit val executor: ExecutionContextExecutor = system.dispatcher
+  override def execute(session: Session) = {
 
+    // a pause is always within a running feature, which is on the protocol executor (not the akka dispatcher)
+    // so this only parks the feature's own thread, and with virtual threads that does not hold an os thread
+    // on older jvm-s the pausing feature keeps its pool thread, which counts against maxConcurrentFeatures
     def pauseInternal(time: Int) = {
-      val duration = Duration(time, MILLISECONDS)
       try {
-        Await.result(Future.never, duration)
+        Thread.sleep(time)
       } catch {
-        // we do all this to achieve a non-blocking "pause"
-        // and the timeout exception will ALWAYS be thrown
-        case e: Throwable => // do nothing
+        case e: InterruptedException => Thread.currentThread.interrupt()
       }
     }
 
@@ -52,13 +50,23 @@ class KarateFeatureAction(val name: String, val tags: Seq[String], val protocol:
       override def reportPerfEvent(event: PerfEvent): Unit = {
         val okOrNot = if (event.isFailed) KO else OK
         val message = if (event.getMessage == null) None else Option(event.getMessage)
-        statsEngine.logResponse(session.scenario, session.groups, event.getName, event.getStartTime, event.getEndTime, okOrNot, Option(event.getStatusCode.toString), message)
+        statsEngine.logResponse(session.scenario, session.groups ++ event.getGroups.asScala, event.getName, event.getStartTime, event.getEndTime, okOrNot, Option(event.getStatusCode.toString), message)
       }
 
-      override def submit(r: Runnable): Unit = Future {
-        r.run()
+      override def getPerfStepKeywords: java.util.Set[String] = stepKeywords
+
+      override def isPerfWebSocketEnabled: Boolean = protocol.webSocketEvents
+
+      override def isPerfCallGroupEnabled: Boolean = protocol.callGroups
+
+      override def reportPerfGroup(event: PerfEvent, cumulatedResponseTime: Long): Unit = {
+        val okOrNot = if (event.isFailed) KO else OK
+        val block = GroupBlock(session.groups ++ event.getGroups.asScala, event.getStartTime, cumulatedResponseTime.toInt, okOrNot)
+        statsEngine.logGroupEnd(session.scenario, block, event.getEndTime)
       }
 
+      override def submit(r: Runnable): Unit = protocol.submit(r)
+
       override def afterFeature(fr: FeatureResult): Unit = {
         val vars: java.util.Map[String, Object] = fr.getVariables
         val attributes: Map[String, AnyRef] = if (vars == null) Map.empty else {
@@ -89,12 +97,7 @@ class KarateFeatureAction(val name: String, val tags: Seq[String], val protocol:
     gatlingSessionMap.put("pause", pauseFunction)
     callArg.put(KarateProtocol.GATLING_KEY, gatlingSessionMap)
 
-    val runner = protocol.runner.copy()
-    runner.callSingleCache(protocol.callSingleCache)
-    runner.callOnceCache(protocol.callOnceCache)
-    runner.tags(tags.asJava)
-
-    Runner.callAsync(protocol.runner, name, callArg, perfHook)
+    Runner.callAsync(protocol.suite(tags), name, callArg, perfHook)
 
   }
 
@@ -1,13 +1,20 @@
 package com.intuit.karate.gatling
 
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.concurrent.{ConcurrentHashMap, ExecutorService, LinkedBlockingQueue, ThreadFactory, ThreadPoolExecutor, TimeUnit}
+import java.util.function.{Function => JFunction}
+
 import akka.actor.ActorSystem
-import com.intuit.karate.Runner
-import com.intuit.karate.http.{HttpRequest, HttpUtils}
-import com.intuit.karate.core.{ScenarioCall, ScenarioRuntime}
+import com.intuit.karate.{Runner, Suite}
+import com.intuit.karate.http.{HttpClientFactory, HttpRequest, HttpUtils}
+import com.intuit.karate.core.{ScenarioCall, ScenarioRuntime, VirtualThreadExecutorService}
 import io.gatling.core.CoreComponents
 import io.gatling.core.config.GatlingConfiguration
 import io.gatling.core.protocol.{Protocol, ProtocolComponents, ProtocolKey}
 import io.gatling.core.session.Session
+import org.slf4j.LoggerFactory
+
+import scala.jdk.CollectionConverters._
 
 case class MethodPause(val method: String, pause: Int)
 
@@ -24,11 +31,49 @@ class KarateProtocol(val uriPatterns: Map[String, Seq[MethodPause]]) extends Pro
   }
   var nameResolver: (HttpRequest, ScenarioRuntime) => String = (req, ctx) => null
   var runner = new Runner.Builder
-  val callSingleCache = new java.util.HashMap[String, AnyRef]
-  val callOnceCache = new java.util.HashMap[String, ScenarioCall.Result]
+  val callSingleCache = new ConcurrentHashMap[String, AnyRef]
+  val callOnceCache = new ConcurrentHashMap[String, ScenarioCall.Result]
+  // built on first use (after the simulation has set up the runner) and shared by all users and iterations
+  // one per set of tags, since the tag selector belongs to the suite
+  private val suites = new ConcurrentHashMap[Seq[String], Suite]
+  private val newSuite = new JFunction[Seq[String], Suite] {
+    override def apply(t: Seq[String]): Suite = {
+      val builder = runner.copy()
+      builder.callSingleCache(callSingleCache)
+      builder.callOnceCache(callOnceCache)
+      builder.tags(t.asJava)
+      Runner.suiteForAsync(builder)
+    }
+  }
+  def suite(tags: Seq[String]): Suite = suites.computeIfAbsent(tags, newSuite)
+  // a feature blocks its thread on http calls and pauses, so features run on their own executor instead
+  // of the akka dispatcher, on virtual threads if the jvm supports them (java 21+) else on platform threads
+  var virtualThreads = true
+  var maxConcurrentFeatures = 1000
+  // users beyond the limit wait in a queue (never dropped), which is logged since it skews the simulation
+  lazy val executor: ExecutorService = KarateProtocol.newExecutor(virtualThreads, maxConcurrentFeatures)
+  private val queueWarnAt = new AtomicInteger(1)
+  def submit(r: Runnable): Unit = {
+    executor.execute(r)
+    val depth = KarateProtocol.queueDepth(executor)
+    val warnAt = queueWarnAt.get
+    if (depth >= warnAt && queueWarnAt.compareAndSet(warnAt, warnAt * 10)) {
+      KarateProtocol.logger.warn("{} features waiting for a thread, maxConcurrentFeatures is {}", Int.box(depth), Int.box(maxConcurrentFeatures))
+    }
+  }
+  // opt-in, besides http calls: step keywords to time (e.g. "match"), websocket send and listen, called features as groups
+  var stepKeywords: Set[String] = Set.empty
+  var webSocketEvents = false
+  var callGroups = false
+  // a virtual thread waiting for an armeria (netty) response is parked, and does not hold on to an os thread
+  def armeriaHttpClient(): KarateProtocol = {
+    runner.clientFactory(HttpClientFactory.ARMERIA)
+    this
+  }
 }
 
 object KarateProtocol {
+  private val logger = LoggerFactory.getLogger(classOf[KarateProtocol])
   val KARATE_KEY = "__karate"
   val GATLING_KEY = "__gatling"
   val KarateProtocolKey = new ProtocolKey[KarateProtocol, KarateComponents] {
@@ -37,6 +82,32 @@ object KarateProtocol {
       karateProtocol => KarateComponents(karateProtocol, coreComponents.actorSystem)
     override def protocolClass= classOf[KarateProtocol].asInstanceOf[Class[io.gatling.core.protocol.Protocol]]
   }
+
+  def newExecutor(virtualThreads: Boolean, maxConcurrent: Int): ExecutorService = {
+    if (virtualThreads && VirtualThreadExecutorService.isSupported) {
+      new VirtualThreadExecutorService(maxConcurrent)
+    } else {
+      // a feature holds its thread for its whole run, including pauses and waiting for http responses
+      logger.info("virtual threads not available, features will run on up to {} platform threads", Int.box(maxConcurrent))
+      val counter = new AtomicInteger()
+      val factory = new ThreadFactory {
+        override def newThread(r: Runnable): Thread = {
+          val thread = new Thread(r, "karate-gatling-" + counter.incrementAndGet())
+          thread.setDaemon(true)
+          thread
+        }
+      }
+      val pool = new ThreadPoolExecutor(maxConcurrent, maxConcurrent, 60, TimeUnit.SECONDS, new LinkedBlockingQueue[Runnable](), factory)
+      pool.allowCoreThreadTimeOut(true)
+      pool
+    }
+  }
+
+  def queueDepth(executor: ExecutorService): Int = executor match {
+    case pool: ThreadPoolExecutor => pool.getQueue.size
+    case virtual: VirtualThreadExecutorService => virtual.getQueueLength
+    case _ => 0
+  }
 }
 
 case class KarateComponents(val protocol: KarateProtocol, val system: ActorSystem) extends ProtocolComponents {